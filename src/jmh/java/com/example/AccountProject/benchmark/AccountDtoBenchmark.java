@@ -0,0 +1,34 @@
+package com.example.AccountProject.benchmark;
+
+import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.type.AccountStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+
+//Entity -> Dto 변환 비용(빌더 경유)
+@State(Scope.Thread)
+public class AccountDtoBenchmark {
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        account = Account.builder()
+                .id(1L)
+                .accountUser(AccountUser.builder()
+                        .id(1L)
+                        .name("bench").build())
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000000")
+                .balance(1000L)
+                .registeredAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public AccountDto fromEntity() {
+        return AccountDto.fromEntity(account);
+    }
+}
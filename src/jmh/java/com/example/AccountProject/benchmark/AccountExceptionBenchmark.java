@@ -0,0 +1,33 @@
+package com.example.AccountProject.benchmark;
+
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.type.ErrorCode;
+import org.openjdk.jmh.annotations.*;
+
+//업무 예외 생성 비용 : 스택 트레이스 없는 AccountException vs 일반 RuntimeException
+//호출 깊이(depth)가 깊을수록 fillInStackTrace 비용 차이가 커짐
+@State(Scope.Thread)
+public class AccountExceptionBenchmark {
+
+    @Param({"10", "100"})
+    private int depth;
+
+    @Benchmark
+    public RuntimeException accountException() {
+        return atDepth(depth, true);
+    }
+
+    @Benchmark
+    public RuntimeException runtimeExceptionWithStackTrace() {
+        return atDepth(depth, false);
+    }
+
+    private RuntimeException atDepth(int remaining, boolean business) {
+        if (remaining > 0) {
+            return atDepth(remaining - 1, business);
+        }
+        return business
+                ? new AccountException(ErrorCode.USER_NOT_FOUND)
+                : new RuntimeException(ErrorCode.USER_NOT_FOUND.getDescription());
+    }
+}
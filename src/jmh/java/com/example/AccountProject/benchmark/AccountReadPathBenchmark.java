@@ -0,0 +1,76 @@
+package com.example.AccountProject.benchmark;
+
+import com.example.AccountProject.domain.AccountInfo;
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.repository.AccountUserRepository;
+import com.example.AccountProject.service.AccountService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌 확인 API의 DB 조회 경로 비교(캐시 제외)
+ * entity     : 사용자 조회 + Account 엔티티 조회 -> AccountDto -> AccountInfo (이전 방식)
+ * projection : findInfoByAccountUserId 쿼리 한 번으로 AccountInfo
+ * -prof gc 의 gc.alloc.rate.norm 으로 연산당 할당량 비교
+ */
+@State(Scope.Benchmark)
+public class AccountReadPathBenchmark {
+    private static final long USER_ID = 600_000_001L;
+
+    private ConfigurableApplicationContext context;
+    private AccountRepository accountRepository;
+    private AccountUserRepository accountUserRepository;
+    private TransactionTemplate readOnlyTransaction;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkSupport.startContext();
+        accountRepository = context.getBean(AccountRepository.class);
+        accountUserRepository = context.getBean(AccountUserRepository.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        context.getBean(JdbcTemplate.class).update(
+                "insert into account_user(id, name, active_account_count, created_at, updated_at) " +
+                        "values (?, 'bench', 0, now(), now())", USER_ID);
+        AccountService accountService = context.getBean(AccountService.class);
+        for (int i = 0; i < 5; i++) {
+            accountService.createAccount(USER_ID, 1000L);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<AccountInfo> entity() {
+        return readOnlyTransaction.execute(status -> {
+            AccountUser accountUser = accountUserRepository.findById(USER_ID).get();
+            List<AccountDto> accountDtos = accountRepository.findByAccountUser(accountUser)
+                    .stream()
+                    .map(AccountDto::fromEntity)
+                    .collect(Collectors.toList());
+            return accountDtos.stream()
+                    .map(accountDto -> AccountInfo.builder()
+                            .accountNumber(accountDto.getAccountNumber())
+                            .balance(accountDto.getBalance())
+                            .build())
+                    .collect(Collectors.toList());
+        });
+    }
+
+    @Benchmark
+    public List<AccountInfo> projection() {
+        return readOnlyTransaction.execute(status -> accountRepository.findInfoByAccountUserId(USER_ID));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.AccountProject.benchmark;
+
+import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDetail;
+import com.example.AccountProject.type.AccountStatus;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+
+//계좌 조회 API(GET /account/{id}) 응답 직렬화 : Account 엔티티(사용자, 감사 필드 포함) vs AccountDetail
+//연산당 할당량은 -prof gc(gc.alloc.rate.norm), 응답 크기는 시작할 때 출력
+@State(Scope.Thread)
+public class AccountResponseBenchmark {
+    private ObjectMapper objectMapper;
+    private Account account;
+    private AccountDetail accountDetail;
+
+    @Setup
+    public void setUp() throws JsonProcessingException {
+        //Spring MVC와 같은 설정(JavaTimeModule, 날짜는 ISO 문자열)
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        LocalDateTime now = LocalDateTime.now();
+        account = Account.builder()
+                .id(1L)
+                .accountUser(AccountUser.builder()
+                        .id(1L)
+                        .name("bench")
+                        .activeAccountCount(1)
+                        .createdAt(now)
+                        .updatedAt(now)
+                        .build())
+                .accountStatus(AccountStatus.IN_USE)
+                .accountNumber("1000000000")
+                .balance(1000L)
+                .version(0L)
+                .registeredAt(now)
+                .createdAt(now)
+                .updatedAt(now)
+                .build();
+        accountDetail = new AccountDetail(1L, 1L, "1000000000", AccountStatus.IN_USE, 1000L, now, null);
+
+        System.out.printf("%nresponse bytes : entity = %d, detail = %d%n",
+                objectMapper.writeValueAsBytes(account).length,
+                objectMapper.writeValueAsBytes(accountDetail).length);
+    }
+
+    @Benchmark
+    public byte[] serializeEntity() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(account);
+    }
+
+    @Benchmark
+    public byte[] serializeDetail() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(accountDetail);
+    }
+}
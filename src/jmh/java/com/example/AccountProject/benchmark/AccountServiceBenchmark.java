@@ -0,0 +1,164 @@
+package com.example.AccountProject.benchmark;
+
+import com.example.AccountProject.cache.UserAccountsCache;
+import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountInfo;
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.repository.AccountUserRepository;
+import com.example.AccountProject.service.AccountNumberGenerator;
+import com.example.AccountProject.service.AccountService;
+import com.example.AccountProject.type.AccountStatus;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * AccountService 주요 경로
+ * stub : repository/Redis 없이 서비스 로직만(mock 응답)
+ * h2   : 실제 빈 구성(H2 메모리 DB + embedded redis)
+ */
+@State(Scope.Benchmark)
+public class AccountServiceBenchmark {
+    private static final long USER_ID_OFFSET = 500_000_000L;
+    private static final long USERS = 100_000L;
+    private static final long READ_USER_ID = USER_ID_OFFSET + 1;
+
+    @Param({"stub", "h2"})
+    private String mode;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private AccountService accountService;
+
+    //생성할 때마다 다른 사용자 사용(사용자당 최대 5개 제한)
+    private final AtomicLong userSequence = new AtomicLong();
+    private final AtomicLong accountNumberSequence = new AtomicLong(1_000_000_000L);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("h2".equals(mode)) {
+            context = BenchmarkSupport.startContext();
+            accountService = context.getBean(AccountService.class);
+            jdbcTemplate = context.getBean(JdbcTemplate.class);
+            jdbcTemplate.update("insert into account_user(id, name, active_account_count, created_at, updated_at) " +
+                    "select ? + x, 'bench', 0, now(), now() from system_range(1, ?)", USER_ID_OFFSET, USERS);
+            for (int i = 0; i < 5; i++) {
+                accountService.createAccount(READ_USER_ID, 1000L);
+            }
+            return;
+        }
+        accountService = BenchmarkSupport.newService(AccountService.class,
+                stubAccountRepository(), stubAccountUserRepository(), stubAccountNumberGenerator(), stubCache());
+    }
+
+    //iteration마다 사용자별 계좌 수를 초기화해서 최대 5개 제한에 걸리지 않게 함
+    @Setup(Level.Iteration)
+    public void resetAccountCounts() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.update("update account_user set active_account_count = 0 where id > ?", READ_USER_ID);
+            //JDBC로 직접 바꿨으므로 2차 캐시의 사용자도 비움
+            context.getBean(EntityManagerFactory.class).getCache().evict(AccountUser.class);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (context != null) {
+            context.close();
+        }
+    }
+
+    @Benchmark
+    public AccountDto createAccount() {
+        return accountService.createAccount(nextUserId(), 1000L);
+    }
+
+    //해지 가능한(잔액 0) 계좌를 만들고 바로 해지, deleteAccount 비용 = 이 값 - createAccount
+    @Benchmark
+    public AccountDto createAndDeleteAccount() {
+        long userId = nextUserId();
+        AccountDto created = accountService.createAccount(userId, 0L);
+        return accountService.deleteAccount(userId, created.getAccountNumber());
+    }
+
+    @Benchmark
+    public List<AccountDto> getAccountsByUserId() {
+        return accountService.getAccountsByUserId(READ_USER_ID);
+    }
+
+    @Benchmark
+    public List<AccountInfo> getAccountInfosByUserId() {
+        return accountService.getAccountInfosByUserId(READ_USER_ID);
+    }
+
+    private long nextUserId() {
+        return READ_USER_ID + 1 + userSequence.getAndIncrement() % (USERS - 1);
+    }
+
+    private AccountUser benchUser() {
+        return AccountUser.builder()
+                .id(READ_USER_ID)
+                .name("bench").build();
+    }
+
+    private AccountRepository stubAccountRepository() {
+        AccountRepository accountRepository = mock(AccountRepository.class);
+        when(accountRepository.save(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        //해지는 조건부 update 한 번(성공 1건)
+        when(accountRepository.unregister(anyString(), anyLong(), any())).thenReturn(1);
+        List<Account> accounts = new ArrayList<>();
+        List<AccountInfo> accountInfos = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            String accountNumber = String.valueOf(1_000_000_000L + i);
+            accounts.add(Account.builder()
+                    .accountUser(benchUser())
+                    .accountStatus(AccountStatus.IN_USE)
+                    .accountNumber(accountNumber)
+                    .balance(1000L)
+                    .registeredAt(LocalDateTime.now())
+                    .build());
+            accountInfos.add(new AccountInfo(accountNumber, 1000L));
+        }
+        when(accountRepository.findByAccountUser(any())).thenReturn(accounts);
+        when(accountRepository.findInfoByAccountUserId(anyLong())).thenReturn(accountInfos);
+        return accountRepository;
+    }
+
+    private AccountUserRepository stubAccountUserRepository() {
+        AccountUserRepository accountUserRepository = mock(AccountUserRepository.class);
+        when(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt())).thenReturn(1);
+        when(accountUserRepository.getReferenceById(anyLong())).thenReturn(benchUser());
+        when(accountUserRepository.findById(anyLong())).thenReturn(Optional.of(benchUser()));
+        return accountUserRepository;
+    }
+
+    private AccountNumberGenerator stubAccountNumberGenerator() {
+        AccountNumberGenerator accountNumberGenerator = mock(AccountNumberGenerator.class);
+        when(accountNumberGenerator.next())
+                .thenAnswer(invocation -> String.valueOf(accountNumberSequence.getAndIncrement()));
+        return accountNumberGenerator;
+    }
+
+    //캐시 미스 : 항상 loader 실행(서비스 + repository 경로 측정)
+    private UserAccountsCache stubCache() {
+        UserAccountsCache userAccountsCache = mock(UserAccountsCache.class);
+        when(userAccountsCache.get(anyLong(), any()))
+                .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        return userAccountsCache;
+    }
+}
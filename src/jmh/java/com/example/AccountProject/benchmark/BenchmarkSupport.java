@@ -0,0 +1,41 @@
+package com.example.AccountProject.benchmark;
+
+import com.example.AccountProject.AccountProjectApplication;
+import org.mockito.Mockito;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.lang.reflect.Constructor;
+import java.util.Arrays;
+
+//벤치마크 공통 : H2 모드용 스프링 컨텍스트, stub 모드용 서비스 생성
+final class BenchmarkSupport {
+    private BenchmarkSupport() {
+    }
+
+    //실제 빈 구성(H2 메모리 DB + embedded redis), SQL 로그는 끔
+    static ConfigurableApplicationContext startContext() {
+        return new SpringApplicationBuilder(AccountProjectApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+    }
+
+    //생성자 파라미터 중 넘겨준 stub이 있으면 그걸 쓰고, 없으면 Mockito mock으로 채워서 생성
+    //(서비스에 의존성이 추가되어도 벤치마크를 고칠 필요 없음)
+    static <T> T newService(Class<T> type, Object... stubs) {
+        try {
+            Constructor<?> constructor = type.getConstructors()[0];
+            Object[] args = Arrays.stream(constructor.getParameterTypes())
+                    .map(parameterType -> Arrays.stream(stubs)
+                            .filter(parameterType::isInstance)
+                            .findFirst()
+                            .orElseGet(() -> Mockito.mock(parameterType)))
+                    .toArray();
+            return type.cast(constructor.newInstance(args));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create " + type.getSimpleName(), e);
+        }
+    }
+}
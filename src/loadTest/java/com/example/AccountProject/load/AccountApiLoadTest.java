@@ -0,0 +1,151 @@
+package com.example.AccountProject.load;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 API 부하 테스트
+ * 동시 클라이언트 수(ex. 1k/5k/10k)별로 정해진 시간 동안 요청을 반복하고 처리량, p50/p99 지연시간을 출력.
+ * sync/async 비교 : 서버를 account.api.execution-mode 별로 띄워서 각각 실행
+ * args : baseUrl, path, 클라이언트 수(','로 구분), 측정 시간(초)
+ */
+public final class AccountApiLoadTest {
+    private static final int WARMUP_CLIENTS = 100;
+    private static final int WARMUP_SECONDS = 10;
+
+    private AccountApiLoadTest() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        String path = args.length > 1 ? args[1] : "/account?user_id=1";
+        int[] clientCounts = Arrays.stream((args.length > 2 ? args[2] : "1000,5000,10000").split(","))
+                .map(String::trim)
+                .mapToInt(Integer::parseInt)
+                .toArray();
+        int seconds = args.length > 3 ? Integer.parseInt(args[3]) : 30;
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        //JIT, 커넥션 풀 워밍업(결과는 버림)
+        run(client, request, WARMUP_CLIENTS, WARMUP_SECONDS);
+
+        System.out.printf("%s %s, %ds per step%n", request.method(), request.uri(), seconds);
+        System.out.printf("%8s %10s %8s %10s %10s %10s %10s%n",
+                "clients", "requests", "errors", "req/s", "p50(ms)", "p99(ms)", "max(ms)");
+        for (int clients : clientCounts) {
+            Result result = run(client, request, clients, seconds);
+            System.out.printf("%8d %10d %8d %10.1f %10.2f %10.2f %10.2f%n",
+                    clients, result.requests, result.errors, result.throughput,
+                    result.percentileMs(0.50), result.percentileMs(0.99), result.percentileMs(1.0));
+        }
+    }
+
+    private static Result run(HttpClient client, HttpRequest request, int clients, int seconds)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.SECONDS.toNanos(seconds);
+        CountDownLatch done = new CountDownLatch(clients);
+
+        List<VirtualClient> virtualClients = new ArrayList<>(clients);
+        for (int i = 0; i < clients; i++) {
+            VirtualClient virtualClient = new VirtualClient(client, request, deadline, done);
+            virtualClients.add(virtualClient);
+            virtualClient.sendNext();
+        }
+        done.await(seconds + 60L, TimeUnit.SECONDS);
+        long elapsed = System.nanoTime() - start;
+
+        int requests = virtualClients.stream().mapToInt(virtualClient -> virtualClient.count).sum();
+        long[] latencies = new long[requests];
+        int errors = 0;
+        int offset = 0;
+        for (VirtualClient virtualClient : virtualClients) {
+            System.arraycopy(virtualClient.latencies, 0, latencies, offset, virtualClient.count);
+            offset += virtualClient.count;
+            errors += virtualClient.errors;
+        }
+        Arrays.sort(latencies);
+        return new Result(latencies, errors, requests / (elapsed / 1_000_000_000.0));
+    }
+
+    //요청 -> 응답 -> 다음 요청을 반복하는 클라이언트 하나(응답을 기다리는 동안 스레드를 점유하지 않음)
+    private static final class VirtualClient {
+        private final HttpClient client;
+        private final HttpRequest request;
+        private final long deadline;
+        private final CountDownLatch done;
+
+        private long[] latencies = new long[256];
+        private int count;
+        private int errors;
+
+        private VirtualClient(HttpClient client, HttpRequest request, long deadline, CountDownLatch done) {
+            this.client = client;
+            this.request = request;
+            this.deadline = deadline;
+            this.done = done;
+        }
+
+        private void sendNext() {
+            if (System.nanoTime() >= deadline) {
+                done.countDown();
+                return;
+            }
+            long start = System.nanoTime();
+            //바로 실패하는 경우(연결 거부 등)에 재귀가 깊어지지 않도록 콜백은 별도 스레드에서
+            client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenCompleteAsync((response, e) -> {
+                        record(System.nanoTime() - start, e == null && response.statusCode() < 400);
+                        sendNext();
+                    });
+        }
+
+        private void record(long latency, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+            if (!success) {
+                errors++;
+            }
+        }
+    }
+
+    private static final class Result {
+        private final long[] sortedLatencies;
+        private final int requests;
+        private final int errors;
+        private final double throughput;
+
+        private Result(long[] sortedLatencies, int errors, double throughput) {
+            this.sortedLatencies = sortedLatencies;
+            this.requests = sortedLatencies.length;
+            this.errors = errors;
+            this.throughput = throughput;
+        }
+
+        private double percentileMs(double percentile) {
+            if (requests == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile * requests) - 1;
+            return sortedLatencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
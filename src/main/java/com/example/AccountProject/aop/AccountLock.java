@@ -0,0 +1,21 @@
+package com.example.AccountProject.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//계좌번호 단위로 락을 잡고 메소드 실행(잔액이 바뀌는 동작에 사용)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface AccountLock {
+    //락 키가 될 계좌번호(SpEL, ex. "#accountNumber")
+    String accountNumber();
+
+    //락 대기/점유 시간(ms), -1이면 application.yml의 기본값 사용
+    long waitTime() default -1;
+
+    long leaseTime() default -1;
+}
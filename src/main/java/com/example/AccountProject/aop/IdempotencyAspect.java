@@ -0,0 +1,247 @@
+package com.example.AccountProject.aop;
+
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.exception.RetryAfterException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.AccountProject.type.ErrorCode.IDEMPOTENCY_KEY_REUSED;
+import static com.example.AccountProject.type.ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS;
+
+/**
+ * Idempotency-Key 처리(@Idempotent)
+ * 처음 요청 : Redis에 처리 중 표시 -> 실행 -> 성공 응답(JSON)을 TTL과 함께 저장
+ * 재요청   : 저장된 응답을 서비스 호출 없이 그대로 응답
+ * 처리 중 중복 요청 : 같은 노드면 처음 요청의 future를 같이 기다리고,
+ *                     다른 노드면 기다리지 않고 바로 IDEMPOTENCY_REQUEST_IN_PROGRESS(409) + Retry-After
+ * 실패한 요청은 저장하지 않음(같은 키로 다시 시도 가능), Redis 장애 시에는 키 없이 처리
+ */
+@Slf4j
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class IdempotencyAspect {
+
+    public static final String HEADER = "Idempotency-Key";
+    private static final String KEY_PREFIX = "IDEM:";
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+
+    @Value("${account.idempotency.ttl-ms:86400000}")
+    private long ttlMs;
+
+    @Value("${account.idempotency.in-flight-ttl-ms:30000}")
+    private long inFlightTtlMs;
+
+    //다른 노드에서 처리 중일 때 안내하는 재시도 시간
+    @Value("${account.idempotency.retry-after-ms:1000}")
+    private long retryAfterMs;
+
+    //이 노드에서 처리 중인 요청(키 -> 처음 요청의 응답 future)
+    private final Map<String, InFlight> inFlights = new ConcurrentHashMap<>();
+
+    @Around("@annotation(com.example.AccountProject.aop.Idempotent)")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        String idempotencyKey = currentIdempotencyKey();
+        if (idempotencyKey == null) {
+            return pjp.proceed();
+        }
+        String key = KEY_PREFIX + pjp.getSignature().getName() + ":" + idempotencyKey;
+        String fingerprint = fingerprintOf(pjp.getArgs());
+
+        //같은 노드의 중복 요청 -> 처음 요청 결과를 같이 사용
+        InFlight inFlight = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight existing = inFlights.putIfAbsent(key, inFlight);
+        if (existing != null) {
+            validateFingerprint(existing.getFingerprint(), fingerprint);
+            return existing.getResponse();
+        }
+
+        RBucket<String> bucket = redissonClient.getBucket(key, StringCodec.INSTANCE);
+        IdempotencyRecord stored;
+        try {
+            stored = acquireOrGetCompleted(bucket, fingerprint);
+        } catch (RedisException e) {
+            log.warn("Idempotency store unavailable, processing without key. key : {}", key, e);
+            inFlights.remove(key, inFlight);
+            CompletableFuture<?> response;
+            try {
+                response = (CompletableFuture<?>) pjp.proceed();
+            } catch (Throwable failure) {
+                completeWaiters(inFlight, null, failure);
+                throw failure;
+            }
+            response.whenComplete((value, failure) -> completeWaiters(inFlight, value, failure));
+            return response;
+        } catch (Throwable e) {
+            inFlights.remove(key, inFlight);
+            inFlight.getResponse().completeExceptionally(e);
+            throw e;
+        }
+
+        //이미 처리된 요청 -> 저장된 응답 그대로(서비스 호출 없음)
+        if (stored != null) {
+            inFlights.remove(key, inFlight);
+            try {
+                completeWaiters(inFlight, objectMapper.readValue(stored.getResponse(), responseTypeOf(pjp)), null);
+            } catch (JsonProcessingException e) {
+                completeWaiters(inFlight, null, e);
+                throw e;
+            }
+            return inFlight.getResponse();
+        }
+        return proceed(pjp, key, bucket, inFlight);
+    }
+
+    private Object proceed(
+            ProceedingJoinPoint pjp, String key, RBucket<String> bucket, InFlight inFlight
+    ) throws Throwable {
+        CompletableFuture<?> response;
+        try {
+            response = (CompletableFuture<?>) pjp.proceed();
+        } catch (Throwable e) {
+            //실패는 저장하지 않음 -> 같은 키로 재시도 가능
+            release(key, bucket, inFlight, null, e);
+            throw e;
+        }
+        response.whenComplete((value, failure) -> release(key, bucket, inFlight, value, failure));
+        return inFlight.getResponse();
+    }
+
+    //성공 응답은 TTL과 함께 저장, 실패면 처리 중 표시 삭제 -> 기다리던 요청에 결과 전달
+    private void release(
+            String key, RBucket<String> bucket, InFlight inFlight, Object value, Throwable failure
+    ) {
+        try {
+            if (failure == null) {
+                bucket.set(toJson(new IdempotencyRecord(inFlight.getFingerprint(), toJson(value))),
+                        ttlMs, TimeUnit.MILLISECONDS);
+            } else {
+                bucket.delete();
+            }
+        } catch (RuntimeException e) {
+            log.warn("Failed to store idempotent response. key : {}", key, e);
+        } finally {
+            inFlights.remove(key, inFlight);
+            completeWaiters(inFlight, value, failure);
+        }
+    }
+
+    //처리 중 표시를 선점하면 null, 이미 처리된 요청이면 저장된 응답
+    //다른 노드에서 처리 중이면 요청 스레드를 잡고 기다리지 않고 바로 실패(Retry-After 이후 재요청하면 저장된 응답)
+    private IdempotencyRecord acquireOrGetCompleted(
+            RBucket<String> bucket, String fingerprint
+    ) throws JsonProcessingException {
+        String inFlightMarker = toJson(new IdempotencyRecord(fingerprint, null));
+        if (bucket.trySet(inFlightMarker, inFlightTtlMs, TimeUnit.MILLISECONDS)) {
+            return null;
+        }
+        String value = bucket.get();
+        if (value == null) {
+            //확인 사이에 처음 요청이 실패해서 지워짐 -> 한 번 더 선점 시도
+            if (bucket.trySet(inFlightMarker, inFlightTtlMs, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+            throw new RetryAfterException(IDEMPOTENCY_REQUEST_IN_PROGRESS, retryAfterMs);
+        }
+        IdempotencyRecord record = objectMapper.readValue(value, IdempotencyRecord.class);
+        validateFingerprint(record.getFingerprint(), fingerprint);
+        if (record.getResponse() == null) {
+            throw new RetryAfterException(IDEMPOTENCY_REQUEST_IN_PROGRESS, retryAfterMs);
+        }
+        return record;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void completeWaiters(InFlight inFlight, Object value, Throwable failure) {
+        CompletableFuture<Object> response = (CompletableFuture<Object>) inFlight.getResponse();
+        if (failure == null) {
+            response.complete(value);
+        } else {
+            response.completeExceptionally(failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure);
+        }
+    }
+
+    //같은 키를 다른 요청 내용에 다시 쓰는 경우는 거절
+    private static void validateFingerprint(String stored, String requested) {
+        if (!stored.equals(requested)) {
+            throw new AccountException(IDEMPOTENCY_KEY_REUSED);
+        }
+    }
+
+    private String fingerprintOf(Object[] args) throws JsonProcessingException {
+        return DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(args));
+    }
+
+    //CompletableFuture<응답> -> 응답 타입
+    private JavaType responseTypeOf(ProceedingJoinPoint pjp) {
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        return objectMapper.getTypeFactory()
+                .constructType(signature.getMethod().getGenericReturnType())
+                .containedType(0);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return new String(objectMapper.writeValueAsBytes(value), StandardCharsets.UTF_8);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize idempotent response", e);
+        }
+    }
+
+    private static String currentIdempotencyKey() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        String key = ((ServletRequestAttributes) RequestContextHolder.getRequestAttributes())
+                .getRequest()
+                .getHeader(HEADER);
+        return key == null || key.isBlank() ? null : key;
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class InFlight {
+        private final String fingerprint;
+        private final CompletableFuture<?> response;
+    }
+
+    //Redis에 저장하는 값(response가 null이면 처리 중)
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    static class IdempotencyRecord {
+        private String fingerprint;
+        private String response;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.AccountProject.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//Idempotency-Key 헤더가 있으면 같은 키의 재요청에 처음 응답을 그대로 돌려줌(컨트롤러 메소드에 사용)
+//메소드 반환 타입은 CompletableFuture<응답>
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface Idempotent {
+}
@@ -0,0 +1,71 @@
+package com.example.AccountProject.aop;
+
+import com.example.AccountProject.service.LockService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+@Aspect
+@Component
+//@Transactional 보다 바깥에서 동작해야 커밋 이후에 락이 풀림
+@Order(Ordered.HIGHEST_PRECEDENCE)
+@RequiredArgsConstructor
+public class LockAopAspect {
+
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final LockService lockService;
+    private final MeterRegistry meterRegistry;
+
+    @Around("@annotation(accountLock)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            AccountLock accountLock
+    ) throws Throwable {
+        String accountNumber = resolveAccountNumber(pjp, accountLock);
+
+        //락 취득 시도 -> 실패하면 ACCOUNT_TRANSACTION_LOCK 예외
+        lockService.lock(accountNumber, accountLock.waitTime(), accountLock.leaseTime());
+        long acquiredAt = System.nanoTime();
+        Throwable failure = null;
+        try {
+            return pjp.proceed();
+        } catch (Throwable e) {
+            failure = e;
+            throw e;
+        } finally {
+            //성공/실패 상관없이 락 해제
+            lockService.unlock(accountNumber);
+            //락 점유 시간(커밋까지 포함), 대기 시간은 LockService에서 account.lock.wait 으로 기록
+            Timer.builder("account.lock.hold")
+                    .tag("method", pjp.getSignature().getName())
+                    .tag("outcome", MetricOutcome.of(failure))
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - acquiredAt, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private String resolveAccountNumber(ProceedingJoinPoint pjp, AccountLock accountLock) {
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                pjp.getTarget(), signature.getMethod(), pjp.getArgs(), NAME_DISCOVERER);
+
+        return PARSER.parseExpression(accountLock.accountNumber())
+                .getValue(context, String.class);
+    }
+}
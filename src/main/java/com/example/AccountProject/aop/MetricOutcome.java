@@ -0,0 +1,28 @@
+package com.example.AccountProject.aop;
+
+import com.example.AccountProject.exception.AccountException;
+
+import java.util.concurrent.CompletionException;
+
+//메트릭 outcome 태그 값 : 성공이면 SUCCESS, AccountException이면 ErrorCode 이름, 그 외에는 예외 클래스 이름
+public final class MetricOutcome {
+    public static final String SUCCESS = "SUCCESS";
+
+    private MetricOutcome() {
+    }
+
+    public static String of(Throwable throwable) {
+        if (throwable == null) {
+            return SUCCESS;
+        }
+        //비동기 API(CompletableFuture)에서 감싸진 예외
+        if (throwable instanceof CompletionException && throwable.getCause() != null) {
+            throwable = throwable.getCause();
+        }
+        if (throwable instanceof AccountException
+                && ((AccountException) throwable).getErrorCode() != null) {
+            return ((AccountException) throwable).getErrorCode().name();
+        }
+        return throwable.getClass().getSimpleName();
+    }
+}
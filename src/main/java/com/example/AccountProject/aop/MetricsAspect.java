@@ -0,0 +1,84 @@
+package com.example.AccountProject.aop;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.aop.framework.AopProxyUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API / repository 호출 시간 측정
+ * account.api        : 컨트롤러 메소드별(tag : controller, method, outcome)
+ * account.repository : repository 메소드별(tag : repository, method, outcome)
+ * outcome 태그는 ErrorCode 이름(MetricOutcome), 응답이 느릴 때 DB 시간인지 락 대기(account.lock.*)인지 비교용
+ */
+@Aspect
+@Component
+@RequiredArgsConstructor
+public class MetricsAspect {
+
+    private final MeterRegistry meterRegistry;
+
+    //repository 프록시 클래스 -> 인터페이스 이름(AccountRepository 등)
+    private final Map<Class<?>, String> repositoryNames = new ConcurrentHashMap<>();
+
+    @Around("within(com.example.AccountProject.controller..*)")
+    public Object timeApi(ProceedingJoinPoint pjp) throws Throwable {
+        return record(pjp, "account.api", "controller",
+                pjp.getSignature().getDeclaringType().getSimpleName());
+    }
+
+    //save/findById 처럼 상위 인터페이스에 선언된 메소드도 포함하기 위해 프록시 타입으로 매칭
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object timeRepository(ProceedingJoinPoint pjp) throws Throwable {
+        return record(pjp, "account.repository", "repository", repositoryName(pjp.getThis()));
+    }
+
+    private Object record(
+            ProceedingJoinPoint pjp, String metricName, String ownerTag, String owner
+    ) throws Throwable {
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = pjp.proceed();
+        } catch (Throwable e) {
+            stop(pjp, metricName, ownerTag, owner, start, e);
+            throw e;
+        }
+        //async 모드 API는 future가 끝날 때까지를 측정
+        if (result instanceof CompletionStage) {
+            ((CompletionStage<?>) result).whenComplete(
+                    (value, e) -> stop(pjp, metricName, ownerTag, owner, start, e));
+            return result;
+        }
+        stop(pjp, metricName, ownerTag, owner, start, null);
+        return result;
+    }
+
+    private void stop(
+            ProceedingJoinPoint pjp, String metricName, String ownerTag, String owner,
+            long start, Throwable failure
+    ) {
+        Timer.builder(metricName)
+                .tag(ownerTag, owner)
+                .tag("method", pjp.getSignature().getName())
+                .tag("outcome", MetricOutcome.of(failure))
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private String repositoryName(Object proxy) {
+        return repositoryNames.computeIfAbsent(proxy.getClass(), proxyClass -> {
+            Class<?>[] interfaces = AopProxyUtils.proxiedUserInterfaces(proxy);
+            return interfaces.length > 0 ? interfaces[0].getSimpleName() : proxyClass.getSimpleName();
+        });
+    }
+}
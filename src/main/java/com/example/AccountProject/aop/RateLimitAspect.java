@@ -0,0 +1,51 @@
+package com.example.AccountProject.aop;
+
+import com.example.AccountProject.service.RateLimitService;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+//Idempotency-Key 처리, 실행 스레드 풀보다 먼저 -> 거절된 요청은 Redis 응답 조회/DB 조회 없이 바로 429
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class RateLimitAspect {
+
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final RateLimitService rateLimitService;
+
+    @Around("@annotation(rateLimited)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            RateLimited rateLimited
+    ) throws Throwable {
+        //한도 초과 -> TOO_MANY_REQUESTS(RateLimitException)
+        rateLimitService.acquire(rateLimited.value(), resolveUserId(pjp, rateLimited));
+        return pjp.proceed();
+    }
+
+    private Long resolveUserId(ProceedingJoinPoint pjp, RateLimited rateLimited) {
+        if (rateLimited.userId().isEmpty()) {
+            return null;
+        }
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                pjp.getTarget(), signature.getMethod(), pjp.getArgs(), NAME_DISCOVERER);
+
+        return PARSER.parseExpression(rateLimited.userId())
+                .getValue(context, Long.class);
+    }
+}
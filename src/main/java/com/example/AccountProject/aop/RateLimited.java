@@ -0,0 +1,19 @@
+package com.example.AccountProject.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//요청 한도 확인 후 실행(컨트롤러 메소드에 사용), 한도는 application.yml의 account.rate-limit.endpoints.<value>
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface RateLimited {
+    //한도 설정 이름(ex. "create-account")
+    String value();
+
+    //사용자별 한도에 쓸 사용자 ID(SpEL, ex. "#request.userId"), 비어 있으면 전체 한도만 확인
+    String userId() default "";
+}
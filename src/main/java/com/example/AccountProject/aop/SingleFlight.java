@@ -0,0 +1,16 @@
+package com.example.AccountProject.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Inherited;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+//같은 키로 동시에 들어온 조회는 한 번만 실행하고 결과를 같이 사용(서비스 조회 메소드에 사용)
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Inherited
+public @interface SingleFlight {
+    //합칠 기준이 되는 키(SpEL, ex. "#userId"), 메소드 이름이 앞에 붙음
+    String key();
+}
@@ -0,0 +1,54 @@
+package com.example.AccountProject.aop;
+
+import com.example.AccountProject.service.SingleFlightGroup;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.Ordered;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.Order;
+import org.springframework.expression.ExpressionParser;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.stereotype.Component;
+
+@Aspect
+@Component
+//트랜잭션보다 바깥 -> 기다리는 요청은 트랜잭션(DB 커넥션)을 시작하지 않음
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class SingleFlightAspect {
+
+    private static final ExpressionParser PARSER = new SpelExpressionParser();
+    private static final ParameterNameDiscoverer NAME_DISCOVERER = new DefaultParameterNameDiscoverer();
+
+    private final SingleFlightGroup singleFlightGroup;
+
+    @Around("@annotation(singleFlight)")
+    public Object aroundMethod(
+            ProceedingJoinPoint pjp,
+            SingleFlight singleFlight
+    ) {
+        return singleFlightGroup.execute(resolveKey(pjp, singleFlight), () -> {
+            try {
+                return pjp.proceed();
+            } catch (RuntimeException | Error e) {
+                throw e;
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        });
+    }
+
+    private String resolveKey(ProceedingJoinPoint pjp, SingleFlight singleFlight) {
+        MethodSignature signature = (MethodSignature) pjp.getSignature();
+        MethodBasedEvaluationContext context = new MethodBasedEvaluationContext(
+                pjp.getTarget(), signature.getMethod(), pjp.getArgs(), NAME_DISCOVERER);
+
+        return signature.getDeclaringType().getSimpleName() + "." + signature.getName() + ":"
+                + PARSER.parseExpression(singleFlight.key()).getValue(context, String.class);
+    }
+}
@@ -0,0 +1,343 @@
+package com.example.AccountProject.cache;
+
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.type.AccountStatus;
+import com.example.AccountProject.type.ErrorCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RDeque;
+import org.redisson.api.RList;
+import org.redisson.api.RMap;
+import org.redisson.api.RMapAsync;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * 계좌 잔액 저장소(Redis)
+ * 계좌번호 -> 잔액/상태를 RMap(ACCOUNT_BALANCES)에 두고, 처음 읽을 때 DB에서 올림(이후 조회는 DB 쿼리 없음).
+ * id로도 조회할 수 있게 id -> 계좌번호(ACCOUNT_BALANCE_NUMBERS)를 같이 올림.
+ * 잔액/상태 변경은 Lua 스크립트 한 번으로 "검증 + 변경"을 원자적으로 처리하고,
+ * write-behind 큐에는 DB 트랜잭션이 커밋된 뒤에 추가, DB(account 테이블) 반영은 AccountBalanceFlusher가 배치로 따로 함.
+ * 트랜잭션 안에서 변경했는데 롤백되면 변경량만큼 되돌림(그 사이 다른 변경이 있어도 그 변경은 유지).
+ * account.balance-store.enabled = false(기본)면 사용하지 않음 -> 기존처럼 DB 조건부 update.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountBalanceStore {
+
+    static final String BALANCES = "ACCOUNT_BALANCES";
+    //id -> 계좌번호(바뀌지 않는 값이라 올린 뒤로 그대로 사용)
+    static final String ACCOUNT_NUMBERS = "ACCOUNT_BALANCE_NUMBERS";
+    static final String WRITE_BEHIND_QUEUE = "ACCOUNT_BALANCE_WRITE_BEHIND";
+    //큐에서 꺼냈지만 아직 DB에 반영하지 않은 항목(반영 전에 죽으면 여기 남아서 다시 반영)
+    static final String PROCESSING_QUEUE = "ACCOUNT_BALANCE_WRITE_BEHIND_PROCESSING";
+
+    //저장 형식 : id|userId|status|balance|version|registeredAt|unRegisteredAt(해지 전이면 빈 값)
+    //write-behind 큐 항목 : accountNumber|(저장 형식)
+    private static final String SEPARATOR = "|";
+
+    //KEYS : 저장소 / ARGV : 계좌번호, 소유주(빈 값이면 확인 안 함), 잔액 변경량, 해지 여부('1'), 해지 일시
+    //반환 : {'OK', 변경 전, 변경 후} 또는 {ErrorCode 이름}, 저장소에 없으면 {'MISSING'}
+    private static final String MUTATE_SCRIPT =
+            "local value = redis.call('hget', KEYS[1], ARGV[1]) " +
+            "if not value then return {'MISSING'} end " +
+            "local id, userId, status, balance, version, registeredAt = " +
+            "    string.match(value, '^(%d+)|(%d+)|([%u_]+)|(%-?%d+)|(%d+)|([^|]*)|') " +
+            "if ARGV[2] ~= '' and ARGV[2] ~= userId then return {'USER_ACCOUNT_UN_MATCH'} end " +
+            "if status ~= 'IN_USE' then return {'ACCOUNT_ALREADY_UNREGISTERED'} end " +
+            "balance = tonumber(balance) + tonumber(ARGV[3]) " +
+            "local unRegisteredAt = '' " +
+            "if ARGV[4] == '1' then " +
+            "    if balance ~= 0 then return {'BALANCE_NOT_EMPTY'} end " +
+            "    status = 'UNREGISTERED' " +
+            "    unRegisteredAt = ARGV[5] " +
+            "elseif balance < 0 then return {'AMOUNT_EXCEED_BALANCE'} end " +
+            "local changed = table.concat({id, userId, status, string.format('%d', balance), " +
+            "    string.format('%d', tonumber(version) + 1), registeredAt, unRegisteredAt}, '|') " +
+            "redis.call('hset', KEYS[1], ARGV[1], changed) " +
+            "return {'OK', value, changed}";
+
+    //롤백 : 현재 값에서 변경량을 되돌리고(해지였으면 사용 중으로) version + 1, 큐에 바로 추가
+    //그 사이 커밋된 다른 변경은 롤백된 변경량을 포함한 값으로 큐에 들어갔을 수 있음 -> 되돌린 값으로 DB를 다시 맞춤
+    //KEYS : 저장소, 큐 / ARGV : 계좌번호, 잔액 변경량, 해지 여부('1')
+    private static final String RESTORE_SCRIPT =
+            "local value = redis.call('hget', KEYS[1], ARGV[1]) " +
+            "if not value then return 0 end " +
+            "local id, userId, status, balance, version, registeredAt, unRegisteredAt = " +
+            "    string.match(value, '^(%d+)|(%d+)|([%u_]+)|(%-?%d+)|(%d+)|([^|]*)|(.*)$') " +
+            "if ARGV[3] == '1' then " +
+            "    status = 'IN_USE' " +
+            "    unRegisteredAt = '' " +
+            "end " +
+            "local restored = table.concat({id, userId, status, " +
+            "    string.format('%d', tonumber(balance) - tonumber(ARGV[2])), " +
+            "    string.format('%d', tonumber(version) + 1), registeredAt, unRegisteredAt}, '|') " +
+            "redis.call('hset', KEYS[1], ARGV[1], restored) " +
+            "redis.call('lpush', KEYS[2], ARGV[1] .. '|' .. restored) " +
+            "return 1";
+
+    //id로 조회 : KEYS : id 매핑, 저장소 / ARGV : id
+    //반환 : {계좌번호, 저장 값}, 값이 없으면 {계좌번호}, 매핑이 없으면 {}
+    private static final String GET_BY_ID_SCRIPT =
+            "local accountNumber = redis.call('hget', KEYS[1], ARGV[1]) " +
+            "if not accountNumber then return {} end " +
+            "local value = redis.call('hget', KEYS[2], accountNumber) " +
+            "if not value then return {accountNumber} end " +
+            "return {accountNumber, value}";
+
+    //큐의 오래된 항목부터 최대 ARGV[1]개를 처리 중 목록으로 옮기고 반환
+    private static final String POLL_SCRIPT =
+            "local items = {} " +
+            "for i = 1, tonumber(ARGV[1]) do " +
+            "    local item = redis.call('rpoplpush', KEYS[1], KEYS[2]) " +
+            "    if not item then break end " +
+            "    items[i] = item " +
+            "end " +
+            "return items";
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${account.balance-store.enabled:false}")
+    private boolean enabled;
+
+    private RMap<String, String> balances;
+    //LPUSH로 추가, 오래된 항목(오른쪽)부터 꺼냄
+    private RDeque<String> writeBehindQueue;
+    private RList<String> processingQueue;
+    private RScript script;
+    private TransactionTemplate primaryReadTemplate;
+
+    @PostConstruct
+    public void init() {
+        balances = redissonClient.getMap(BALANCES, StringCodec.INSTANCE);
+        writeBehindQueue = redissonClient.getDeque(WRITE_BEHIND_QUEUE, StringCodec.INSTANCE);
+        processingQueue = redissonClient.getList(PROCESSING_QUEUE, StringCodec.INSTANCE);
+        script = redissonClient.getScript(StringCodec.INSTANCE);
+        primaryReadTemplate = new TransactionTemplate(transactionManager);
+        primaryReadTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    //계좌 하나 조회(저장소에 없으면 DB에서 올림), DB에도 없으면 empty
+    public Optional<AccountBalance> get(String accountNumber) {
+        return Optional.ofNullable(getAll(Collections.singleton(accountNumber)).get(accountNumber));
+    }
+
+    //여러 계좌 조회 : HMGET 한 번, 저장소에 없는 계좌만 DB in 쿼리 한 번으로 올림(DB에도 없는 계좌는 결과에 없음)
+    public Map<String, AccountBalance> getAll(Collection<String> accountNumbers) {
+        Set<String> keys = new HashSet<>(accountNumbers);
+        Map<String, AccountBalance> found = decodeAll(balances.getAll(keys));
+        if (found.size() < keys.size()) {
+            keys.removeAll(found.keySet());
+            found.putAll(load(keys));
+        }
+        return found;
+    }
+
+    //계좌 하나 조회(id) : 저장소에 있으면 Lua 한 번(id -> 계좌번호 -> 값), 없을 때만 DB에서 읽어서 올림
+    public Optional<AccountBalance> getById(Long id) {
+        List<String> found = script.eval(RScript.Mode.READ_ONLY, GET_BY_ID_SCRIPT, RScript.ReturnType.MULTI,
+                Arrays.asList(ACCOUNT_NUMBERS, BALANCES), String.valueOf(id));
+        if (found.size() == 2) {
+            return Optional.of(decode(found.get(0), found.get(1)));
+        }
+        if (found.size() == 1) {
+            return get(found.get(0));
+        }
+        return readPrimary(() -> accountRepository.findBalanceById(id))
+                .map(balance -> store(Collections.singletonList(balance)).get(balance.getAccountNumber()));
+    }
+
+    private Map<String, AccountBalance> load(Set<String> accountNumbers) {
+        return store(readPrimary(() -> accountRepository.findBalancesByAccountNumberIn(accountNumbers)));
+    }
+
+    //replica가 아니라 primary에서 읽음(복제 지연된 값이 저장소에 계속 남지 않게)
+    private <T> T readPrimary(Supplier<T> query) {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? primaryReadTemplate.execute(status -> query.get())
+                : query.get();
+    }
+
+    //DB에서 읽은 값은 저장소에 없을 때만 저장(그 사이 Lua로 바뀐 값을 덮어쓰지 않음) -> 저장된 값을 다시 읽어서 반환
+    private Map<String, AccountBalance> store(List<AccountBalance> loaded) {
+        if (loaded == null || loaded.isEmpty()) {
+            return Collections.emptyMap();
+        }
+
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        RMapAsync<String, String> map = batch.getMap(BALANCES, StringCodec.INSTANCE);
+        RMapAsync<String, String> accountNumbers = batch.getMap(ACCOUNT_NUMBERS, StringCodec.INSTANCE);
+        loaded.forEach(balance -> {
+            map.fastPutIfAbsentAsync(balance.getAccountNumber(), encode(balance));
+            accountNumbers.fastPutAsync(String.valueOf(balance.getId()), balance.getAccountNumber());
+        });
+        batch.execute();
+
+        return decodeAll(balances.getAll(loaded.stream()
+                .map(AccountBalance::getAccountNumber)
+                .collect(Collectors.toSet())));
+    }
+
+    //계좌 해지 : 본인 계좌 + 사용 중 + 잔액 0 일 때만
+    public AccountBalance unregister(Long userId, String accountNumber, LocalDateTime unRegisteredAt) {
+        return mutate(accountNumber, String.valueOf(userId), 0, true, unRegisteredAt.toString());
+    }
+
+    //잔액 사용 : 본인 계좌 + 사용 중 + 잔액이 충분할 때만 차감
+    public AccountBalance use(Long userId, String accountNumber, long amount) {
+        return mutate(accountNumber, String.valueOf(userId), -amount, false, "");
+    }
+
+    //잔액 사용 취소 : 사용 중인 계좌에만 금액 복구
+    public AccountBalance cancel(String accountNumber, long amount) {
+        return mutate(accountNumber, "", amount, false, "");
+    }
+
+    //실패하면 Lua가 돌려준 ErrorCode로 AccountException
+    private AccountBalance mutate(String accountNumber, String userId, long delta,
+                                  boolean unregister, String unRegisteredAt) {
+        List<Object> keys = Collections.singletonList(BALANCES);
+        Object[] args = {accountNumber, userId, String.valueOf(delta), unregister ? "1" : "0", unRegisteredAt};
+
+        List<String> result = script.eval(RScript.Mode.READ_WRITE, MUTATE_SCRIPT, RScript.ReturnType.MULTI, keys, args);
+        if ("MISSING".equals(result.get(0))) {
+            if (!get(accountNumber).isPresent()) {
+                throw new AccountException(ErrorCode.ACCOUNT_NOT_FOUND);
+            }
+            result = script.eval(RScript.Mode.READ_WRITE, MUTATE_SCRIPT, RScript.ReturnType.MULTI, keys, args);
+        }
+        if (!"OK".equals(result.get(0))) {
+            throw new AccountException(ErrorCode.valueOf(result.get(0)));
+        }
+
+        writeBehindAfterCommit(accountNumber, result.get(2), delta, unregister);
+        return decode(accountNumber, result.get(2));
+    }
+
+    //트랜잭션 안이면 커밋된 뒤에 큐에 추가(커밋 전에 추가하면 롤백될 변경이 DB에 먼저 반영될 수 있음),
+    //롤백되면 변경량만큼 되돌림(DB 트랜잭션 없이 Redis만 변경된 상태로 남지 않게)
+    private void writeBehindAfterCommit(String accountNumber, String changed, long delta, boolean unregister) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            enqueue(accountNumber, changed);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                enqueue(accountNumber, changed);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_ROLLED_BACK) {
+                    restore(accountNumber, delta, unregister);
+                }
+            }
+        });
+    }
+
+    //추가하지 못해도 저장소 값은 최신 -> 다음 변경의 항목(전체 상태)이 반영될 때 DB도 맞춰짐
+    private void enqueue(String accountNumber, String changed) {
+        try {
+            writeBehindQueue.addFirst(accountNumber + SEPARATOR + changed);
+        } catch (RuntimeException e) {
+            log.warn("Failed to enqueue account balance write-behind. accountNumber : {}", accountNumber, e);
+        }
+    }
+
+    private void restore(String accountNumber, long delta, boolean unregister) {
+        Long restored = script.eval(RScript.Mode.READ_WRITE, RESTORE_SCRIPT, RScript.ReturnType.INTEGER,
+                Arrays.asList(BALANCES, WRITE_BEHIND_QUEUE),
+                accountNumber, String.valueOf(delta), unregister ? "1" : "0");
+        if (restored == null || restored == 0) {
+            log.warn("Account balance missing in store on rollback, not restored. accountNumber : {}",
+                    accountNumber);
+        }
+    }
+
+    //write-behind 큐에서 오래된 것부터 최대 count개를 처리 중 목록으로 옮겨서 반환
+    public List<AccountBalance> pollWriteBehind(int count) {
+        List<String> items = script.eval(RScript.Mode.READ_WRITE, POLL_SCRIPT, RScript.ReturnType.MULTI,
+                Arrays.asList(WRITE_BEHIND_QUEUE, PROCESSING_QUEUE), String.valueOf(count));
+        return decodeEntries(items);
+    }
+
+    //처리 중 목록(이전 실행이 DB에 반영하기 전에 멈춘 항목)
+    public List<AccountBalance> pendingWriteBehind() {
+        return decodeEntries(processingQueue.readAll());
+    }
+
+    //DB 반영 완료 -> 처리 중 목록 비움
+    public void ackWriteBehind() {
+        processingQueue.delete();
+    }
+
+    //아직 DB에 반영하지 않은 변경 수(모니터링용)
+    public long getWriteBehindSize() {
+        return (long) writeBehindQueue.size() + processingQueue.size();
+    }
+
+    private static String encode(AccountBalance balance) {
+        return String.join(SEPARATOR,
+                String.valueOf(balance.getId()),
+                String.valueOf(balance.getAccountUserId()),
+                balance.getAccountStatus().name(),
+                String.valueOf(balance.getBalance()),
+                String.valueOf(balance.getVersion()),
+                balance.getRegisteredAt() == null ? "" : balance.getRegisteredAt().toString(),
+                balance.getUnRegisteredAt() == null ? "" : balance.getUnRegisteredAt().toString());
+    }
+
+    private static AccountBalance decode(String accountNumber, String value) {
+        String[] fields = value.split("\\|", -1);
+        return new AccountBalance(
+                Long.parseLong(fields[0]),
+                Long.parseLong(fields[1]),
+                accountNumber,
+                AccountStatus.valueOf(fields[2]),
+                Long.parseLong(fields[3]),
+                Long.parseLong(fields[4]),
+                fields[5].isEmpty() ? null : LocalDateTime.parse(fields[5]),
+                fields[6].isEmpty() ? null : LocalDateTime.parse(fields[6]));
+    }
+
+    private static Map<String, AccountBalance> decodeAll(Map<String, String> values) {
+        Map<String, AccountBalance> decoded = new HashMap<>();
+        values.forEach((accountNumber, value) -> decoded.put(accountNumber, decode(accountNumber, value)));
+        return decoded;
+    }
+
+    private static List<AccountBalance> decodeEntries(List<String> entries) {
+        List<AccountBalance> decoded = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            int separator = entry.indexOf(SEPARATOR);
+            decoded.add(decode(entry.substring(0, separator), entry.substring(separator + 1)));
+        }
+        return decoded;
+    }
+}
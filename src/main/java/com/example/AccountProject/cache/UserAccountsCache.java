@@ -0,0 +1,217 @@
+package com.example.AccountProject.cache;
+
+import com.example.AccountProject.domain.AccountInfo;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchResult;
+import org.redisson.api.RBatch;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 사용자별 계좌 목록 캐시
+ * 1차 : 로컬(Caffeine, 크기/TTL 제한)
+ * 2차 : Redis(RMapCache, TTL)
+ * 계좌 생성/해지/잔액 변경 시 커밋 이후 해당 사용자 항목을 지우고,
+ * 다른 노드의 1차 캐시는 RTopic으로 무효화 메시지를 보내서 지움.
+ * 무효화할 때 사용자별 세대(generation)를 올리고, DB에서 읽는 동안 세대가 바뀌었으면 읽은 값은 캐시하지 않음
+ * (커밋 전에 읽은 이전 목록을 무효화 이후에 다시 캐시하는 경우 방지).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UserAccountsCache {
+
+    private static final String REDIS_CACHE_NAME = "USER_ACCOUNTS";
+    private static final String INVALIDATION_TOPIC = "USER_ACCOUNTS_INVALIDATION";
+    //사용자별 무효화 세대(모든 노드 공유, 사용자마다 키 하나) : 무효화할 때만 만들고 TTL이 지나면 사라짐
+    private static final String GENERATION_KEY_PREFIX = "USER_ACCOUNTS_GENERATION:";
+    //1차 캐시 세대는 userId를 나눠서 공유(사용자 수만큼 늘어나지 않게, 같은 칸이면 가끔 캐시를 건너뛸 뿐)
+    private static final int LOCAL_GENERATION_STRIPES = 1024;
+
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account.cache.local.maximum-size:10000}")
+    private long localMaximumSize;
+
+    @Value("${account.cache.local.ttl-ms:5000}")
+    private long localTtlMs;
+
+    @Value("${account.cache.redis.ttl-ms:60000}")
+    private long redisTtlMs;
+
+    private Cache<Long, List<AccountInfo>> localCache;
+    private RMapCache<Long, List<AccountInfo>> redisCache;
+    private RTopic invalidationTopic;
+    private final AtomicLongArray localGenerations = new AtomicLongArray(LOCAL_GENERATION_STRIPES);
+
+    private final LongAdder redisHits = new LongAdder();
+    private final LongAdder redisMisses = new LongAdder();
+    private final LongAdder redisErrors = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(Duration.ofMillis(localTtlMs))
+                .recordStats()
+                .build();
+        redisCache = redissonClient.getMapCache(REDIS_CACHE_NAME);
+        invalidationTopic = redissonClient.getTopic(INVALIDATION_TOPIC);
+        invalidationTopic.addListener(Long.class, (channel, userId) -> invalidateLocal(userId));
+
+        //캐시 튜닝용 지표 : 1차(hit/miss/eviction/size), 2차(hit/miss/error)
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, "user_accounts");
+        FunctionCounter.builder("account.cache.redis.requests", redisHits, LongAdder::sum)
+                .tag("result", "hit")
+                .register(meterRegistry);
+        FunctionCounter.builder("account.cache.redis.requests", redisMisses, LongAdder::sum)
+                .tag("result", "miss")
+                .register(meterRegistry);
+        FunctionCounter.builder("account.cache.redis.errors", redisErrors, LongAdder::sum)
+                .register(meterRegistry);
+    }
+
+    //1차 -> 2차 -> loader(DB) 순서로 조회, DB에서 읽은 값은 두 캐시에 모두 저장
+    public List<AccountInfo> get(Long userId, Supplier<List<AccountInfo>> loader) {
+        List<AccountInfo> cached = localCache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+
+        //조회 시작 시점의 세대 : 저장하기 전에 바뀌었으면 그 사이에 무효화된 것
+        long localGeneration = localGenerations.get(stripe(userId));
+        RedisEntry entry = getFromRedis(userId);
+        if (entry != null && entry.accounts != null) {
+            putLocal(userId, entry.accounts, localGeneration);
+            return entry.accounts;
+        }
+
+        List<AccountInfo> loaded = loader.get();
+        //Redis 장애 시에는 2차 캐시 없이 1차 캐시만 사용
+        if (entry == null || putToRedis(userId, loaded, entry.generation)) {
+            putLocal(userId, loaded, localGeneration);
+        }
+        return loaded;
+    }
+
+    //트랜잭션 안이면 커밋 이후에 지움(커밋 전에 지우면 다른 요청이 이전 값을 다시 캐시할 수 있음)
+    public void evictAfterCommit(Long userId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evict(userId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                evict(userId);
+            }
+        });
+    }
+
+    public void evict(Long userId) {
+        invalidateLocal(userId);
+        try {
+            //세대를 먼저 올리고 지움 -> 지우기 전에 읽기 시작한 요청은 저장 후 세대 확인에서 걸러짐
+            //세대 키는 2차 캐시 TTL의 두 배 동안 유지(그 사이 저장된 이전 목록은 이미 만료됨)
+            RBatch batch = redissonClient.createBatch();
+            batch.getAtomicLong(generationKey(userId)).incrementAndGetAsync();
+            batch.getAtomicLong(generationKey(userId)).expireAsync(Duration.ofMillis(redisTtlMs * 2));
+            batch.<Long, List<AccountInfo>>getMapCache(REDIS_CACHE_NAME).fastRemoveAsync(userId);
+            batch.execute();
+            invalidationTopic.publish(userId);
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.warn("Failed to evict user accounts cache. userId : {}", userId, e);
+        }
+    }
+
+    private void invalidateLocal(Long userId) {
+        //put과 같은 키 잠금 안에서 세대를 올림 -> 이전 세대로 시작한 put은 저장되지 않음
+        localCache.asMap().compute(userId, (key, current) -> {
+            localGenerations.incrementAndGet(stripe(key));
+            return null;
+        });
+    }
+
+    private void putLocal(Long userId, List<AccountInfo> accounts, long generation) {
+        localCache.asMap().compute(userId, (key, current) ->
+                localGenerations.get(stripe(key)) == generation ? accounts : current);
+    }
+
+    private static String generationKey(Long userId) {
+        return GENERATION_KEY_PREFIX + userId;
+    }
+
+    private static int stripe(Long userId) {
+        return Long.hashCode(userId) & (LOCAL_GENERATION_STRIPES - 1);
+    }
+
+    //Redis 장애 시에는 null -> 캐시 없이 DB 조회로 동작
+    @SuppressWarnings("unchecked")
+    private RedisEntry getFromRedis(Long userId) {
+        try {
+            RBatch batch = redissonClient.createBatch();
+            batch.<Long, List<AccountInfo>>getMapCache(REDIS_CACHE_NAME).getAsync(userId);
+            batch.getAtomicLong(generationKey(userId)).getAsync();
+            List<?> responses = batch.execute().getResponses();
+            List<AccountInfo> cached = (List<AccountInfo>) responses.get(0);
+            if (cached != null) {
+                redisHits.increment();
+            } else {
+                redisMisses.increment();
+            }
+            return new RedisEntry(cached, (Long) responses.get(1));
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.warn("Failed to read user accounts cache. userId : {}", userId, e);
+            return null;
+        }
+    }
+
+    //저장한 뒤 세대가 바뀌었으면(그 사이 무효화) 저장한 값을 다시 지우고 false
+    private boolean putToRedis(Long userId, List<AccountInfo> accounts, long generation) {
+        try {
+            RBatch batch = redissonClient.createBatch();
+            batch.<Long, List<AccountInfo>>getMapCache(REDIS_CACHE_NAME)
+                    .fastPutAsync(userId, accounts, redisTtlMs, TimeUnit.MILLISECONDS);
+            batch.getAtomicLong(generationKey(userId)).getAsync();
+            BatchResult<?> result = batch.execute();
+            if (generation == (Long) result.getResponses().get(1)) {
+                return true;
+            }
+            redisCache.fastRemove(userId);
+            return false;
+        } catch (RuntimeException e) {
+            redisErrors.increment();
+            log.warn("Failed to write user accounts cache. userId : {}", userId, e);
+            return true; //1차 캐시는 로컬 세대로 확인
+        }
+    }
+
+    //2차 캐시 조회 결과 : 캐시된 목록(없으면 null), 조회 시점의 세대(세대 키가 없으면 0)
+    @RequiredArgsConstructor
+    private static final class RedisEntry {
+        private final List<AccountInfo> accounts;
+        private final long generation;
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.AccountProject.config;
+
+import com.example.AccountProject.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static com.example.AccountProject.type.ErrorCode.ACCOUNT_API_BUSY;
+
+/**
+ * 계좌 API 실행 방식(account.api.execution-mode)
+ * sync  : 요청 스레드(Tomcat)에서 바로 실행
+ * async : 별도 스레드 풀에서 실행, DB 왕복 동안 Tomcat 스레드는 반환됨
+ *         풀/큐가 가득 차면 대기시키지 않고 ACCOUNT_API_BUSY 로 바로 거절
+ * (Java 11 이라 가상 스레드는 사용 불가, 올라가면 이 클래스의 executor만 바꾸면 됨)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountApiExecutor {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${account.api.execution-mode:sync}")
+    private String mode;
+
+    @Value("${account.api.executor.pool-size:64}")
+    private int poolSize;
+
+    @Value("${account.api.executor.queue-capacity:1000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        if (!isAsyncMode()) {
+            return;
+        }
+        executor = new ThreadPoolExecutor(
+                poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                new CustomizableThreadFactory("account-api-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        //executor.queued / executor.active / executor.completed 등
+        meterRegistry.ifAvailable(registry -> new ExecutorServiceMetrics(
+                executor, "account.api", Tags.empty()).bindTo(registry));
+        log.info("account api async mode. poolSize : {}, queueCapacity : {}", poolSize, queueCapacity);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor != null) {
+            executor.shutdown();
+        }
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> task) {
+        if (!isAsyncMode()) {
+            return CompletableFuture.completedFuture(task.get());
+        }
+        try {
+            return CompletableFuture.supplyAsync(task, executor);
+        } catch (RejectedExecutionException e) {
+            throw new AccountException(ACCOUNT_API_BUSY);
+        }
+    }
+
+    private boolean isAsyncMode() {
+        return "async".equalsIgnoreCase(mode);
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.AccountProject.config;
+
+import com.example.AccountProject.repository.AccountUserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+//activeAccountCount 컬럼 추가 이전 데이터 이관
+//account.backfill.active-account-count=true 로 한 번 기동하면 실제 IN_USE 계좌 수로 다시 계산
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "account.backfill.active-account-count", havingValue = "true")
+public class ActiveAccountCountBackfillRunner implements ApplicationRunner {
+
+    private final AccountUserRepository accountUserRepository;
+
+    @Override
+    @Transactional
+    public void run(ApplicationArguments args) {
+        int updated = accountUserRepository.backfillActiveAccountCount();
+        log.info("activeAccountCount backfilled. users : {}", updated);
+    }
+}
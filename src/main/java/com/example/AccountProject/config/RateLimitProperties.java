@@ -0,0 +1,56 @@
+package com.example.AccountProject.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * API 요청 한도(account.rate-limit)
+ * endpoints : @RateLimited 의 이름 -> 사용자별(per-user), 전체(global) 한도
+ * 설정이 없는 endpoint, 한도가 없는 범위는 제한하지 않음
+ */
+@Getter
+@Setter
+@Component
+@ConfigurationProperties("account.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    //redis : Redisson RRateLimiter(여러 노드가 한도 공유, Redis 장애 시 local로 처리), local : 노드별 토큰 버킷
+    private String mode = "redis";
+
+    //로컬 토큰 버킷/거절 상태를 들고 있는 최대 키 수와 유지 시간(사용자별 키가 계속 쌓이지 않게)
+    private long localMaximumSize = 100_000;
+
+    private long localTtlMs = 600_000;
+
+    //Redis 오류 후 이 시간 동안은 Redis를 건너뛰고 로컬 토큰 버킷으로 처리(장애 중 요청마다 타임아웃 기다리지 않게)
+    private long redisBackoffMs = 5_000;
+
+    private Map<String, Endpoint> endpoints = new HashMap<>();
+
+    @Getter
+    @Setter
+    public static class Endpoint {
+        private Limit perUser;
+        private Limit global;
+    }
+
+    //periodMs 동안 permits 번
+    @Getter
+    @Setter
+    public static class Limit {
+        private long permits;
+        private long periodMs = 1000;
+
+        //토큰 1개가 다시 채워지는 시간(ms)
+        public long refillIntervalMs() {
+            return Math.max(1, (periodMs + permits - 1) / permits);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.AccountProject.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+//@Transactional(readOnly = true) 안이면 replica, 그 외(쓰기 트랜잭션, 트랜잭션 밖)는 primary
+//트랜잭션 시작 시점에는 readOnly 여부가 아직 설정 전이라 LazyConnectionDataSourceProxy로 감싸서 사용
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+    public static final String PRIMARY = "primary";
+    public static final String REPLICA = "replica";
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? REPLICA : PRIMARY;
+    }
+}
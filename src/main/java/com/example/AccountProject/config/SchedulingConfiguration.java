@@ -0,0 +1,11 @@
+package com.example.AccountProject.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+@Configuration
+@EnableScheduling
+public class SchedulingConfiguration {
+    //@Scheduled 작업(AccountEventRelay, AccountReconciliationJob) 활성화
+    //스레드 수는 spring.task.scheduling.pool.size
+}
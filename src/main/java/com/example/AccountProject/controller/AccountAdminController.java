@@ -0,0 +1,68 @@
+package com.example.AccountProject.controller;
+
+import com.example.AccountProject.config.AccountApiExecutor;
+import com.example.AccountProject.dto.AccountPage;
+import com.example.AccountProject.service.AccountService;
+import com.example.AccountProject.type.AccountStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+//관리자용 전체 계좌 조회(사용자 구분 없이)
+@RestController
+@RequiredArgsConstructor
+public class AccountAdminController {
+    //export 시 이 건수마다 응답을 flush
+    private static final int EXPORT_FLUSH_INTERVAL = 1000;
+
+    private final AccountService accountService;
+    private final AccountApiExecutor accountApiExecutor;
+    private final ObjectMapper objectMapper;
+
+    //전체 계좌 목록 API(keyset 페이지, 파라미터 : 상태, 커서, 개수)
+    @GetMapping("/accounts")
+    public CompletableFuture<AccountPage.Response> getAccountPage(
+            @RequestParam(value = "status", required = false) AccountStatus status,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam(value = "limit", defaultValue = "" + AccountPage.DEFAULT_LIMIT) int limit
+    ) {
+        return accountApiExecutor.submit(() -> accountService.getAccountPage(status, after, limit));
+    }
+
+    //전체 계좌 export API(NDJSON : 한 줄에 계좌 하나)
+    //DB 커서로 읽으면서 바로 응답에 쓰므로 계좌 수가 많아도 메모리에 목록을 만들지 않음
+    //오래 걸리는 작업이라 API 스레드 풀(AccountApiExecutor)은 사용하지 않음
+    @GetMapping(value = "/accounts/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportAccounts(
+            @RequestParam(value = "status", required = false) AccountStatus status,
+            HttpServletResponse response
+    ) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        ServletOutputStream out = response.getOutputStream();
+
+        long[] written = new long[1];
+        accountService.exportAccounts(status, accountDto -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(accountDto));
+                out.write('\n');
+                if (++written[0] % EXPORT_FLUSH_INTERVAL == 0) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        out.flush();
+    }
+}
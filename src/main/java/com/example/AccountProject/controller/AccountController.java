@@ -1,9 +1,15 @@
 package com.example.AccountProject.controller;
 
 
-import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.aop.Idempotent;
+import com.example.AccountProject.aop.RateLimited;
+import com.example.AccountProject.config.AccountApiExecutor;
 import com.example.AccountProject.domain.AccountInfo;
+import com.example.AccountProject.dto.AccountDetail;
+import com.example.AccountProject.dto.AccountLookup;
+import com.example.AccountProject.dto.AccountPage;
 import com.example.AccountProject.dto.CreateAccount;
+import com.example.AccountProject.dto.CreateAccountBatch;
 import com.example.AccountProject.dto.DeleteAccount;
 import com.example.AccountProject.service.AccountService;
 
@@ -12,59 +18,101 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.validation.Valid;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
+//모든 API는 AccountApiExecutor를 통해 실행(sync : 요청 스레드, async : 별도 스레드 풀)
+//@RateLimited : 실행 전에 요청 한도 확인(초과하면 429, account.rate-limit.endpoints)
 @RestController
 @RequiredArgsConstructor
 public class AccountController {
 
     private final AccountService accountService;
+    private final AccountApiExecutor accountApiExecutor;
 
     //계좌 생성 API(파라미터 : 사용자 ID, 초기 잔액)
+    //Idempotency-Key 헤더를 주면 재시도 시 계좌가 중복 생성되지 않고 처음 응답을 그대로 받음
+    @Idempotent
+    @RateLimited(value = "create-account", userId = "#request.userId")
     @PostMapping("/account")
-    public CreateAccount.Response createAccount(
+    public CompletableFuture<CreateAccount.Response> createAccount(
             @RequestBody @Valid CreateAccount.Request request
     ) {
         //AccountDto : serverice와 Controller 사이에서 통신 연결
-        return CreateAccount.Response.from(
+        return accountApiExecutor.submit(() -> CreateAccount.Response.from(
                 accountService.createAccount(
                     request.getUserId(),
                     request.getInitialBalance()
             )
-        );
+        ));
+    }
+
+    //일괄 계좌 생성 API(파라미터 : 사용자 ID, 초기 잔액 목록) -> 항목별 결과를 요청 순서대로 응답
+    @Idempotent
+    @RateLimited("create-accounts")
+    @PostMapping("/accounts/batch")
+    public CompletableFuture<List<CreateAccountBatch.Response>> createAccounts(
+            @RequestBody @Valid CreateAccountBatch.Request request
+    ) {
+        return accountApiExecutor.submit(() -> accountService.createAccounts(request.getAccounts())
+                .stream()
+                .map(CreateAccountBatch.Response::from)
+                .collect(Collectors.toList()));
     }
 
     //계좌 해지 API(파라미터 : 사용자 ID, 계좌번호)
+    @Idempotent
+    @RateLimited(value = "delete-account", userId = "#request.userId")
     @DeleteMapping("/account")
-    public DeleteAccount.Response deleteAccount(
+    public CompletableFuture<DeleteAccount.Response> deleteAccount(
             @RequestBody @Valid DeleteAccount.Request request
     ) {
-        return DeleteAccount.Response.from(
+        return accountApiExecutor.submit(() -> DeleteAccount.Response.from(
                 accountService.deleteAccount(
                         request.getUserId(),
                         request.getAccountNumber()
                 )
-        );
+        ));
     }
 
     //계좌 확인 API(파라미터 : 사용자 ID)
-    //Service에서 List<AccountDto> 타입으로 변환된걸 List<AccountInfo>로 넣어줘야함.
+    //Service에서 projection 쿼리로 바로 만든 List<AccountInfo>를 그대로 응답
+    @RateLimited(value = "get-accounts", userId = "#userId")
     @GetMapping("/account")
-    public List<AccountInfo> getAccountsByUserId(
+    public CompletableFuture<List<AccountInfo>> getAccountsByUserId(
             @RequestParam("user_id") Long userId
     ) {
-        return accountService.getAccountsByUserId(userId)
-                .stream().map(accountDto -> AccountInfo.builder()
-                        .accountNumber(accountDto.getAccountNumber())
-                        .balance(accountDto.getBalance())
-                        .build())
-                .collect(Collectors.toList());
+        return accountApiExecutor.submit(() -> accountService.getAccountInfosByUserId(userId));
+    }
+
+    //계좌 목록 API(keyset 페이지, 파라미터 : 사용자 ID, 커서, 개수)
+    //limit이 있을 때만 이 API로 매핑, 응답의 nextCursor를 다음 요청의 after로 사용
+    @RateLimited(value = "get-accounts", userId = "#userId")
+    @GetMapping(value = "/account", params = "limit")
+    public CompletableFuture<AccountPage.Response> getAccountPageByUserId(
+            @RequestParam("user_id") Long userId,
+            @RequestParam(value = "after", required = false) Long after,
+            @RequestParam("limit") int limit
+    ) {
+        return accountApiExecutor.submit(
+                () -> accountService.getAccountPageByUserId(userId, after, limit));
     }
 
+    //여러 계좌 잔액 조회 API(파라미터 : 계좌번호 목록, 최대 AccountLookup.MAX_ACCOUNT_NUMBERS개)
+    //HTTP 요청 1번 + SQL 1번, 결과는 요청 순서대로(없는 계좌는 found = false)
+    @RateLimited("lookup-accounts")
+    @PostMapping("/accounts/lookup")
+    public CompletableFuture<List<AccountLookup.Response>> lookupAccounts(
+            @RequestBody @Valid AccountLookup.Request request
+    ) {
+        return accountApiExecutor.submit(() -> accountService.lookupAccounts(request.getAccountNumbers()));
+    }
 
+    @RateLimited("get-account")
+    //계좌 조회 API(파라미터 : 계좌 ID) : 엔티티가 아니라 AccountDetail 응답
     @GetMapping("/account/{id}")
-    public Account getAccount(
+    public CompletableFuture<AccountDetail> getAccount(
             @PathVariable Long id){
-        return accountService.getAccount(id);
+        return accountApiExecutor.submit(() -> accountService.getAccount(id));
     }
 }
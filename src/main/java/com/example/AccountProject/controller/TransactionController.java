@@ -0,0 +1,86 @@
+package com.example.AccountProject.controller;
+
+import com.example.AccountProject.dto.CancelBalance;
+import com.example.AccountProject.dto.QueryTransactionResponse;
+import com.example.AccountProject.dto.UseBalance;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.service.TransactionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+
+/**
+ * 잔액 관련 컨트롤러
+ * 1. 잔액 사용
+ * 2. 잔액 사용 취소
+ * 3. 거래 확인
+ */
+@Slf4j
+@RestController
+@RequiredArgsConstructor
+public class TransactionController {
+
+    private final TransactionService transactionService;
+
+    @PostMapping("/transaction/use")
+    public UseBalance.Response useBalance(
+            @RequestBody @Valid UseBalance.Request request
+    ) {
+        try {
+            return UseBalance.Response.from(
+                    transactionService.useBalance(
+                            request.getUserId(),
+                            request.getAccountNumber(),
+                            request.getAmount())
+            );
+        } catch (AccountException e) {
+            //업무상 거절(잔액 부족 등)은 장애가 아니라 info, 실패 내역은 원장(F)에 남음
+            log.info("Failed to use balance. userId : {}, accountNumber : {}, amount : {}, errorCode : {}",
+                    request.getUserId(), request.getAccountNumber(), request.getAmount(), e.getErrorCode());
+
+            //실패 거래도 원장에 저장
+            transactionService.saveFailedUseTransaction(
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+
+            throw e;
+        }
+    }
+
+    @PostMapping("/transaction/cancel")
+    public CancelBalance.Response cancelBalance(
+            @RequestBody @Valid CancelBalance.Request request
+    ) {
+        try {
+            return CancelBalance.Response.from(
+                    transactionService.cancelBalance(
+                            request.getTransactionId(),
+                            request.getAccountNumber(),
+                            request.getAmount())
+            );
+        } catch (AccountException e) {
+            log.info("Failed to cancel balance. transactionId : {}, accountNumber : {}, amount : {}, errorCode : {}",
+                    request.getTransactionId(), request.getAccountNumber(), request.getAmount(), e.getErrorCode());
+
+            transactionService.saveFailedCancelTransaction(
+                    request.getTransactionId(),
+                    request.getAccountNumber(),
+                    request.getAmount()
+            );
+
+            throw e;
+        }
+    }
+
+    @GetMapping("/transaction/{transactionId}")
+    public QueryTransactionResponse queryTransaction(
+            @PathVariable String transactionId
+    ) {
+        return QueryTransactionResponse.from(
+                transactionService.queryTransaction(transactionId)
+        );
+    }
+}
@@ -16,14 +16,27 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        //계좌번호로 조회(findByAccountNumber), 계좌번호 중복 방지
+        @Index(name = "ux_account_account_number", columnList = "accountNumber", unique = true),
+        //사용자별 계좌 조회(findByAccountUser, findInfoByAccountUserId)
+        @Index(name = "ix_account_user_status", columnList = "account_user_id, accountStatus"),
+        //상태별 전체 계좌 목록(keyset 페이지, findPageByAccountStatus)
+        @Index(name = "ix_account_status_id", columnList = "accountStatus, id")
+})
 public class Account {
     //Account 테이블 : pk(id)
+    //pooled 시퀀스(50개씩 할당) -> insert 전에 id를 미리 알 수 있어서 JDBC batch insert 가능
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_seq", allocationSize = 50)
     private Long id;
 
     //컬럼 추가
-    @ManyToOne //유저를 N:1로 가짐
+    //유저를 N:1로 가짐
+    //LAZY : 대부분 사용자 id(FK)만 필요 -> 프록시의 getId()는 조회 없이 FK 값 반환
+    //사용자 정보까지 필요한 조회는 repository 메소드에 @EntityGraph로 따로 지정
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;
     private String accountNumber;
 
@@ -35,6 +48,11 @@ public class Account {
     private LocalDateTime registeredAt;
     private LocalDateTime unRegisteredAt;
 
+    //낙관적 락 : 엔티티로 수정할 때 다른 요청이 먼저 바꿨으면 OptimisticLockException(덮어쓰기 방지)
+    //repository의 조건부 update도 version을 같이 올림
+    @Version
+    private Long version;
+
     //모든 테이블에 생성, 수정 값 자동으로 저장해줌,
     //@EntityListeners 함께 사용
     //AuditingEntityListener 작동 시키기 위해 //JpaAuditingConfiguration클래스에 @EnableJpaAuditing지정
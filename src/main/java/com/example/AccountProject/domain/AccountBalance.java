@@ -0,0 +1,22 @@
+package com.example.AccountProject.domain;
+
+import com.example.AccountProject.type.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+//잔액 저장소(AccountBalanceStore) 항목 : 계좌번호 -> 잔액/상태(계좌 조회 응답에 필요한 값 포함)
+//DB에서 처음 읽을 때 projection 쿼리로 바로 만들고, 이후 변경은 Redis(Lua)에서 version을 올리면서 처리
+@Getter
+@AllArgsConstructor
+public class AccountBalance {
+    private Long id;
+    private Long accountUserId;
+    private String accountNumber;
+    private AccountStatus accountStatus;
+    private Long balance;
+    private Long version;
+    private LocalDateTime registeredAt;
+    private LocalDateTime unRegisteredAt;
+}
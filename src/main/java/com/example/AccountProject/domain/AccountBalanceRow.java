@@ -0,0 +1,15 @@
+package com.example.AccountProject.domain;
+
+import com.example.AccountProject.type.AccountStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+//대사용 projection : 계좌 엔티티(영속성 컨텍스트) 없이 필요한 컬럼만
+@Getter
+@AllArgsConstructor
+public class AccountBalanceRow {
+    private Long id;
+    private Long accountUserId;
+    private AccountStatus accountStatus;
+    private Long balance;
+}
@@ -0,0 +1,35 @@
+package com.example.AccountProject.domain;
+
+import com.example.AccountProject.type.AccountStatus;
+import lombok.*;
+
+import javax.persistence.*;
+
+//대사 실행의 id 구간별(toAccountId 까지) 사용자/상태 집계
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(indexes = {
+        @Index(name = "ix_account_balance_snapshot_run_user", columnList = "runId, accountUserId")
+})
+public class AccountBalanceSnapshot {
+    //구간마다 batch insert 되도록 pooled 시퀀스
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_balance_snapshot_seq")
+    @SequenceGenerator(name = "account_balance_snapshot_seq", sequenceName = "account_balance_snapshot_seq",
+            allocationSize = 50)
+    private Long id;
+
+    private Long runId;
+    private Long toAccountId;
+    private Long accountUserId;
+
+    @Enumerated(EnumType.STRING)
+    private AccountStatus accountStatus;
+
+    private long accountCount;
+    private long totalBalance;
+}
@@ -0,0 +1,63 @@
+package com.example.AccountProject.domain;
+
+import com.example.AccountProject.type.AccountEventType;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//계좌 생성/해지 이벤트 outbox
+//계좌 변경과 같은 트랜잭션에서 저장 -> AccountEventRelay가 Redis stream으로 발행 후 sentAt 기록
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        //미발행 이벤트 조회(findUnsent)
+        @Index(name = "ix_account_event_sent_at_id", columnList = "sentAt, id")
+})
+public class AccountEvent {
+    //일괄 계좌 생성 시 이벤트도 batch insert 되도록 pooled 시퀀스
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_event_seq")
+    @SequenceGenerator(name = "account_event_seq", sequenceName = "account_event_seq", allocationSize = 50)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private AccountEventType eventType;
+
+    private Long accountId;
+    private String accountNumber;
+    private Long accountUserId;
+
+    private LocalDateTime occurredAt;
+    private LocalDateTime sentAt;   //null이면 아직 발행 전
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+
+    public static AccountEvent of(AccountEventType eventType, Account account) {
+        return AccountEvent.builder()
+                .eventType(eventType)
+                .accountId(account.getId())
+                .accountNumber(account.getAccountNumber())
+                .accountUserId(account.getAccountUser().getId())
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+
+    //엔티티를 읽지 않고 처리한 경우(조건부 update 해지)
+    public static AccountEvent of(AccountEventType eventType, Long userId, String accountNumber) {
+        return AccountEvent.builder()
+                .eventType(eventType)
+                .accountNumber(accountNumber)
+                .accountUserId(userId)
+                .occurredAt(LocalDateTime.now())
+                .build();
+    }
+}
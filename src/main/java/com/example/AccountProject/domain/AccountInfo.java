@@ -3,12 +3,15 @@ package com.example.AccountProject.domain;
 
 import lombok.*;
 
+import java.io.Serializable;
+
 @Getter
 @Setter
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder
-public class AccountInfo {
+public class AccountInfo implements Serializable {
+    //Redis 캐시에 저장하기 위해 직렬화
 
     //Account의 특정 정보들만 뽑아서 사용자한테 응답으로 줌
     //클라이언트와 Controller와의 응답을 주고 받는데 최적화
@@ -1,10 +1,13 @@
 package com.example.AccountProject.domain;
 
 import lombok.*;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
+import javax.persistence.Cacheable;
 import javax.persistence.Entity;
 import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
@@ -18,13 +21,22 @@ import java.time.LocalDateTime;
 @Builder
 @Entity
 @EntityListeners(AuditingEntityListener.class)
+//2차 캐시 : 사용자 정보는 거의 바뀌지 않으므로 findById / Account.accountUser 로딩을 캐시에서 처리
+//영역 크기, TTL은 application.conf(caffeine.jcache.account-user)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = AccountUser.CACHE_REGION)
 public class AccountUser {
+    public static final String CACHE_REGION = "account-user";
+
     @Id
     @GeneratedValue
     private long id;
 
     private String name;
 
+    //사용 중(IN_USE)인 계좌 수 : 계좌 생성/해지 시 조건부 update로만 변경
+    private int activeAccountCount;
+
     @CreatedDate
     private LocalDateTime createdAt;
     @LastModifiedDate
@@ -0,0 +1,41 @@
+package com.example.AccountProject.domain;
+
+import com.example.AccountProject.type.DiscrepancyType;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//대사 불일치 리포트(계좌 단위면 accountId, 사용자 단위면 accountUserId)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "ix_reconciliation_discrepancy_run", columnList = "runId, id")
+})
+public class ReconciliationDiscrepancy {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_discrepancy_seq")
+    @SequenceGenerator(name = "reconciliation_discrepancy_seq", sequenceName = "reconciliation_discrepancy_seq",
+            allocationSize = 50)
+    private Long id;
+
+    private Long runId;
+
+    @Enumerated(EnumType.STRING)
+    private DiscrepancyType discrepancyType;
+
+    private Long accountUserId;
+    private Long accountId;
+    private Long expected;
+    private Long actual;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,42 @@
+package com.example.AccountProject.domain;
+
+import com.example.AccountProject.type.ReconciliationStatus;
+import lombok.*;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//잔액/계좌 수 대사 실행 기록
+//maxAccountId : 시작 시점의 마지막 계좌 id(이후 생성된 계좌는 다음 실행에서 확인)
+//lastProcessedId : 여기까지 집계 완료 -> 중단되면 다음 실행이 이어서 처리
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@EntityListeners(AuditingEntityListener.class)
+public class ReconciliationRun {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reconciliation_run_seq")
+    @SequenceGenerator(name = "reconciliation_run_seq", sequenceName = "reconciliation_run_seq", allocationSize = 1)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private ReconciliationStatus status;
+
+    private long maxAccountId;
+    private long lastProcessedId;
+
+    private long processedCount;
+    private long totalBalance;
+    private long discrepancyCount;
+
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    @LastModifiedDate
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,52 @@
+package com.example.AccountProject.domain;
+
+import com.example.AccountProject.type.TransactionResultType;
+import com.example.AccountProject.type.TransactionType;
+import lombok.*;
+import org.hibernate.annotations.Immutable;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import javax.persistence.*;
+import java.time.LocalDateTime;
+
+//거래 원장 : 한 번 쌓인 거래는 수정하지 않음(취소도 CANCEL 거래를 새로 추가)
+@Getter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Immutable
+@EntityListeners(AuditingEntityListener.class)
+@Table(indexes = {
+        @Index(name = "ux_transaction_transaction_id", columnList = "transactionId", unique = true),
+        //계좌별 거래 내역 조회(시간순)
+        @Index(name = "ix_transaction_account_transacted_at", columnList = "account_id, transactedAt"),
+        //성공/실패 비율 확인용
+        @Index(name = "ix_transaction_result_transacted_at", columnList = "transactionResultType, transactedAt"),
+        //이미 취소된 거래인지 확인
+        @Index(name = "ix_transaction_canceled_transaction_id", columnList = "canceledTransactionId")
+})
+public class Transaction {
+    @Id
+    @GeneratedValue
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    private TransactionType transactionType;
+    @Enumerated(EnumType.STRING)
+    private TransactionResultType transactionResultType;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    private Account account;
+    private Long amount;
+    private Long balanceSnapshot; //거래 후 잔액
+
+    private String transactionId;
+    //취소 거래인 경우 원거래 transactionId
+    private String canceledTransactionId;
+    private LocalDateTime transactedAt;
+
+    @CreatedDate
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,34 @@
+package com.example.AccountProject.dto;
+
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.type.AccountStatus;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+//계좌 조회 API(GET /account/{id}) 응답
+//projection 쿼리(findDetailById) 또는 잔액 저장소 값에서 바로 만듦 -> 엔티티/사용자 조회, 빌더 없음
+//필드 순서 고정, 해지 전이면 unRegisteredAt 생략
+@Getter
+@AllArgsConstructor
+@JsonPropertyOrder({"id", "userId", "accountNumber", "accountStatus", "balance", "registeredAt", "unRegisteredAt"})
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class AccountDetail {
+    private final Long id;
+    private final Long userId;
+    private final String accountNumber;
+    private final AccountStatus accountStatus;
+    private final Long balance;
+    private final LocalDateTime registeredAt;
+    private final LocalDateTime unRegisteredAt;
+
+    //잔액 저장소 값(DB 반영 전일 수 있음)으로 만든 응답
+    public static AccountDetail from(AccountBalance accountBalance) {
+        return new AccountDetail(accountBalance.getId(), accountBalance.getAccountUserId(),
+                accountBalance.getAccountNumber(), accountBalance.getAccountStatus(), accountBalance.getBalance(),
+                accountBalance.getRegisteredAt(), accountBalance.getUnRegisteredAt());
+    }
+}
@@ -2,6 +2,7 @@ package com.example.AccountProject.dto;
 
 
 import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.type.AccountStatus;
 import lombok.*;
 
 import java.time.LocalDateTime;
@@ -16,6 +17,7 @@ public class AccountDto {
     //Controller와 Service간에 데이터 주고 받는데 최적화된 Dto
     private Long userId;
     private String accountNumber;
+    private AccountStatus accountStatus;
     private Long balance;
 
     private LocalDateTime registeredAt;
@@ -23,10 +25,12 @@ public class AccountDto {
 
     //특정타입으로 바꿔줄때 static 메소드의 생성자 활용하여 만듬.
     //(특정 Entity에서 특정 Dto로 변환해줄 때)
+    //accountUser는 LAZY 프록시여도 getId()는 추가 조회 없음
     public static AccountDto fromEntity(Account account) {
         return AccountDto.builder()
                 .userId(account.getAccountUser().getId())
                 .accountNumber(account.getAccountNumber())
+                .accountStatus(account.getAccountStatus())
                 .balance(account.getBalance())
                 .registeredAt(account.getRegisteredAt())
                 .unRegisteredAt(account.getUnRegisteredAt())
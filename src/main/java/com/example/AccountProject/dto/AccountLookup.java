@@ -0,0 +1,44 @@
+package com.example.AccountProject.dto;
+
+import com.example.AccountProject.domain.AccountInfo;
+import lombok.*;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+//여러 계좌 잔액 한 번에 조회(계좌번호 in 쿼리 1번)
+public class AccountLookup {
+    public static final int MAX_ACCOUNT_NUMBERS = 100;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Size(max = MAX_ACCOUNT_NUMBERS)
+        private List<@NotBlank String> accountNumbers;
+    }
+
+    //요청 순서대로, 없거나 해지된 계좌는 found = false(balance 없음)
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private boolean found;
+        private Long balance;
+
+        public static Response found(AccountInfo accountInfo) {
+            return new Response(accountInfo.getAccountNumber(), true, accountInfo.getBalance());
+        }
+
+        public static Response notFound(String accountNumber) {
+            return new Response(accountNumber, false, null);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.AccountProject.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+//계좌 목록 keyset 페이지(id 순서)
+//nextCursor를 다음 요청의 after로 넘기면 이어서 조회, null이면 마지막 페이지
+public class AccountPage {
+    public static final int DEFAULT_LIMIT = 20;
+    public static final int MAX_LIMIT = 100;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<AccountDto> accounts;
+        private Long nextCursor;
+    }
+}
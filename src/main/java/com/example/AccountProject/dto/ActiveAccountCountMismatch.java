@@ -0,0 +1,10 @@
+package com.example.AccountProject.dto;
+
+//사용자별 activeAccountCount와 대사 집계(사용 중 계좌 수)가 다른 경우 projection
+public interface ActiveAccountCountMismatch {
+    Long getUserId();
+
+    Long getExpected();
+
+    Long getActual();
+}
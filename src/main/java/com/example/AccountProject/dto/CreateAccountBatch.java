@@ -0,0 +1,70 @@
+package com.example.AccountProject.dto;
+
+import com.example.AccountProject.type.ErrorCode;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+//일괄 계좌 생성
+public class CreateAccountBatch {
+    public static final int MAX_BATCH_SIZE = 1000;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Size(max = MAX_BATCH_SIZE)
+        private List<CreateAccount.@Valid Request> accounts;
+    }
+
+    //Service -> Controller 항목별 처리 결과(성공이면 accountDto, 실패면 errorCode)
+    @Getter
+    @AllArgsConstructor
+    public static class Result {
+        private final Long userId;
+        private final AccountDto accountDto;
+        private final ErrorCode errorCode;
+
+        public static Result success(AccountDto accountDto) {
+            return new Result(accountDto.getUserId(), accountDto, null);
+        }
+
+        public static Result fail(Long userId, ErrorCode errorCode) {
+            return new Result(userId, null, errorCode);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private Long userId;
+        private String accountNumber;
+        private LocalDateTime registeredAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static Response from(Result result) {
+            if (result.getErrorCode() != null) {
+                return Response.builder()
+                        .userId(result.getUserId())
+                        .errorCode(result.getErrorCode())
+                        .errorMessage(result.getErrorCode().getDescription())
+                        .build();
+            }
+            return Response.builder()
+                    .userId(result.getUserId())
+                    .accountNumber(result.getAccountDto().getAccountNumber())
+                    .registeredAt(result.getAccountDto().getRegisteredAt())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.AccountProject.dto;
+
+import com.example.AccountProject.type.ErrorCode;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.*;
+
+//모든 실패 응답 body
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ErrorResponse {
+    private ErrorCode errorCode;
+    private String errorMessage;
+
+    //다시 시도할 수 있는 실패(요청 한도 초과, 같은 키 처리 중)일 때만 : 다시 시도할 수 있을 때까지 남은 시간(ms)
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Long retryAfterMs;
+
+    public static ErrorResponse from(ErrorCode errorCode) {
+        return ErrorResponse.builder()
+                .errorCode(errorCode)
+                .errorMessage(errorCode.getDescription())
+                .build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.AccountProject.dto;
+
+import com.example.AccountProject.type.TransactionResultType;
+import com.example.AccountProject.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+//거래 확인
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class QueryTransactionResponse {
+    private String accountNumber;
+    private TransactionType transactionType;
+    private TransactionResultType transactionResult;
+    private String transactionId;
+    private Long amount;
+    private LocalDateTime transactedAt;
+
+    public static QueryTransactionResponse from(TransactionDto transactionDto) {
+        return QueryTransactionResponse.builder()
+                .accountNumber(transactionDto.getAccountNumber())
+                .transactionType(transactionDto.getTransactionType())
+                .transactionResult(transactionDto.getTransactionResultType())
+                .transactionId(transactionDto.getTransactionId())
+                .amount(transactionDto.getAmount())
+                .transactedAt(transactionDto.getTransactedAt())
+                .build();
+    }
+}
@@ -1,20 +1,19 @@
 package com.example.AccountProject.exception;
 
 import com.example.AccountProject.type.ErrorCode;
-import lombok.*;
+import lombok.Getter;
 
+//업무 규칙 위반(사용자 없음, 최대 계좌 수 등) -> GlobalExceptionHandler에서 ErrorCode 응답으로 변환
+//자주 발생하는 정상 흐름의 실패라서 스택 트레이스를 만들지 않음(writableStackTrace = false)
 @Getter
-@Setter
-@AllArgsConstructor
-@NoArgsConstructor
-@Builder
 public class AccountException extends RuntimeException{
 
-    private ErrorCode errorCode;
-    private String errorMessage;
+    private final ErrorCode errorCode;
+    private final String errorMessage;
 
     //type -> ErrorCode의 description을 받기 위한 생성자
     public AccountException(ErrorCode errorCode) {
+        super(errorCode.getDescription(), null, false, false);
         this.errorCode = errorCode;
         this.errorMessage = errorCode.getDescription();
     }
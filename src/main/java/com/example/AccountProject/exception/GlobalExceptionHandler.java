@@ -0,0 +1,82 @@
+package com.example.AccountProject.exception;
+
+import com.example.AccountProject.dto.ErrorResponse;
+import com.example.AccountProject.type.ErrorCode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.validation.BindException;
+import org.springframework.web.bind.MissingServletRequestParameterException;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.context.request.async.AsyncRequestTimeoutException;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
+
+import javax.validation.ConstraintViolationException;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.AccountProject.type.ErrorCode.ACCOUNT_API_BUSY;
+import static com.example.AccountProject.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static com.example.AccountProject.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 모든 API의 실패 응답 처리
+ * AccountException -> ErrorCode의 상태/메시지
+ * RetryAfterException(요청 한도 초과, 같은 키 처리 중) -> ErrorCode의 상태 + Retry-After
+ * 요청 값 검증 실패 -> INVALID_REQUEST(400)
+ * 그 외 RuntimeException -> INTERNAL_SERVER_ERROR(500)
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(AccountException.class)
+    public ResponseEntity<ErrorResponse> handleAccountException(AccountException e) {
+        //예상된 업무 실패라 스택 트레이스 없이 코드만 기록
+        log.info("{} is occurred.", e.getErrorCode());
+        return toResponse(e.getErrorCode());
+    }
+
+    //잠시 후 다시 시도 -> Retry-After(초) 헤더, body에는 ms 단위로
+    @ExceptionHandler(RetryAfterException.class)
+    public ResponseEntity<ErrorResponse> handleRetryAfterException(RetryAfterException e) {
+        ErrorResponse errorResponse = ErrorResponse.from(e.getErrorCode());
+        errorResponse.setRetryAfterMs(e.getRetryAfterMs());
+        return ResponseEntity.status(e.getErrorCode().getHttpStatus())
+                .header(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, TimeUnit.MILLISECONDS.toSeconds(e.getRetryAfterMs() + 999))))
+                .body(errorResponse);
+    }
+
+    //@Valid body(MethodArgumentNotValidException은 BindException의 하위 타입), 파라미터 누락/타입 오류, JSON 파싱 오류
+    @ExceptionHandler({
+            BindException.class,
+            ConstraintViolationException.class,
+            MissingServletRequestParameterException.class,
+            MethodArgumentTypeMismatchException.class,
+            HttpMessageNotReadableException.class
+    })
+    public ResponseEntity<ErrorResponse> handleInvalidRequest(Exception e) {
+        log.info("Invalid request : {}", e.getMessage());
+        return toResponse(INVALID_REQUEST);
+    }
+
+    //async 모드 API 응답 제한 시간(spring.mvc.async.request-timeout) 초과
+    @ExceptionHandler(AsyncRequestTimeoutException.class)
+    public ResponseEntity<ErrorResponse> handleAsyncTimeout(AsyncRequestTimeoutException e) {
+        return toResponse(ACCOUNT_API_BUSY);
+    }
+
+    //405, 415 등 Spring MVC 예외(ServletException)는 Spring 기본 처리에 맡김
+    @ExceptionHandler(RuntimeException.class)
+    public ResponseEntity<ErrorResponse> handleException(RuntimeException e) {
+        log.error("Unexpected exception is occurred.", e);
+        return toResponse(INTERNAL_SERVER_ERROR);
+    }
+
+    private static ResponseEntity<ErrorResponse> toResponse(ErrorCode errorCode) {
+        return ResponseEntity.status(errorCode.getHttpStatus())
+                .body(ErrorResponse.from(errorCode));
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.AccountProject.exception;
+
+import com.example.AccountProject.type.ErrorCode;
+
+//요청 한도 초과(TOO_MANY_REQUESTS) : 다시 시도할 수 있을 때까지 남은 시간을 같이 전달
+public class RateLimitException extends RetryAfterException {
+
+    public RateLimitException(long retryAfterMs) {
+        super(ErrorCode.TOO_MANY_REQUESTS, retryAfterMs);
+    }
+}
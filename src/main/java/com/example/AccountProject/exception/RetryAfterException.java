@@ -0,0 +1,16 @@
+package com.example.AccountProject.exception;
+
+import com.example.AccountProject.type.ErrorCode;
+import lombok.Getter;
+
+//잠시 후 다시 시도하면 되는 실패(요청 한도 초과, 같은 키 처리 중) : 다시 시도할 수 있을 때까지 남은 시간을 같이 전달
+@Getter
+public class RetryAfterException extends AccountException {
+
+    private final long retryAfterMs;
+
+    public RetryAfterException(ErrorCode errorCode, long retryAfterMs) {
+        super(errorCode);
+        this.retryAfterMs = retryAfterMs;
+    }
+}
@@ -0,0 +1,28 @@
+package com.example.AccountProject.repository;
+
+import com.example.AccountProject.domain.AccountBalanceSnapshot;
+import com.example.AccountProject.dto.ActiveAccountCountMismatch;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AccountBalanceSnapshotRepository extends JpaRepository<AccountBalanceSnapshot, Long> {
+
+    //사용자 activeAccountCount와 실행 집계의 사용 중 계좌 수 비교(사용자 id keyset, limit개)
+    //account 테이블은 읽지 않고 스냅샷만 사용
+    @Query(value = "select u.id as userId, u.active_account_count as expected, coalesce(s.account_count, 0) as actual " +
+            "from account_user u " +
+            "left join (select account_user_id, sum(account_count) as account_count " +
+            "from account_balance_snapshot " +
+            "where run_id = :runId and account_user_id > :afterUserId and account_status = 'IN_USE' " +
+            "group by account_user_id) s on s.account_user_id = u.id " +
+            "where u.id > :afterUserId and u.active_account_count <> coalesce(s.account_count, 0) " +
+            "order by u.id limit :limit",
+            nativeQuery = true)
+    List<ActiveAccountCountMismatch> findActiveAccountCountMismatches(
+            @Param("runId") long runId, @Param("afterUserId") long afterUserId, @Param("limit") int limit);
+}
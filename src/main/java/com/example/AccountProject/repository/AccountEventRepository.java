@@ -0,0 +1,39 @@
+package com.example.AccountProject.repository;
+
+import com.example.AccountProject.domain.AccountEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface AccountEventRepository extends JpaRepository<AccountEvent, Long> {
+
+    //아직 발행하지 않은 이벤트를 저장 순서대로(Pageable은 limit 용도)
+    @Query("select e from AccountEvent e where e.sentAt is null order by e.id")
+    List<AccountEvent> findUnsent(Pageable pageable);
+
+    long countBySentAtIsNull();
+
+    @Modifying
+    @Query("update AccountEvent e set e.sentAt = :sentAt where e.id in :ids")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("sentAt") LocalDateTime sentAt);
+
+    //보존 기간이 지난 발행 완료 이벤트 id(sentAt, id 인덱스 범위 조회)
+    @Query("select e.id from AccountEvent e where e.sentAt < :before order by e.sentAt, e.id")
+    List<Long> findIdsSentBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    //발행을 끈 경우 : 보존 기간이 지난 미발행 이벤트 id
+    @Query("select e.id from AccountEvent e where e.sentAt is null and e.occurredAt < :before order by e.id")
+    List<Long> findIdsUnsentBefore(@Param("before") LocalDateTime before, Pageable pageable);
+
+    @Modifying
+    @Query("delete from AccountEvent e where e.id in :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+}
@@ -1,16 +1,37 @@
 package com.example.AccountProject.repository;
 
 import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.domain.AccountBalanceRow;
+import com.example.AccountProject.domain.AccountInfo;
 import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDetail;
+import com.example.AccountProject.type.AccountStatus;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
+import static org.hibernate.jpa.QueryHints.HINT_READONLY;
 
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
+    //전체 계좌 export 시 JDBC fetch size(한 번에 DB에서 가져오는 row 수)
+    String EXPORT_FETCH_SIZE = "1000";
 
+    //fetch plan : 아래 조회들은 사용자 id(FK)만 쓰므로 account 테이블만 읽음(join, 추가 select 없음)
+    //사용자 정보까지 필요한 경우만 @EntityGraph(attributePaths = "accountUser")
     Optional<Account> findFirstByOrderByIdDesc();
 
     //Account안에 accountUser를 연관관계로 가지고 있기 때문에 가능
@@ -19,6 +40,119 @@ public interface AccountRepository extends JpaRepository<Account, Long> {
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
+    //계좌 조회 API 응답 projection : account 테이블만 읽고 엔티티를 만들지 않음
+    @Query("select new com.example.AccountProject.dto.AccountDetail(a.id, a.accountUser.id, a.accountNumber, " +
+            "a.accountStatus, a.balance, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.id = :id")
+    Optional<AccountDetail> findDetailById(@Param("id") long id);
+
     //Account안에 accountUser를 연관관계로 가지고 있기 때문에 가능(JPA 기능)
     List<Account> findByAccountUser(AccountUser accountUser);
+
+    //계좌 확인 API 전용 : 엔티티를 만들지 않고 필요한 컬럼(계좌번호, 잔액)만 바로 AccountInfo로 조회
+    //account_user 조인/조회 없이 account 테이블 한 번만 읽음
+    @Query("select new com.example.AccountProject.domain.AccountInfo(a.accountNumber, a.balance) " +
+            "from Account a where a.accountUser.id = :userId order by a.id")
+    List<AccountInfo> findInfoByAccountUserId(@Param("userId") long userId);
+
+    //여러 계좌 잔액 조회 : 계좌번호 in 쿼리 한 번(사용 중인 계좌만, 순서는 보장하지 않음)
+    @Query("select new com.example.AccountProject.domain.AccountInfo(a.accountNumber, a.balance) " +
+            "from Account a where a.accountNumber in :accountNumbers " +
+            "and a.accountStatus = com.example.AccountProject.type.AccountStatus.IN_USE")
+    List<AccountInfo> findByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    //잔액 저장소(AccountBalanceStore)에 처음 올릴 때 : 상태와 상관없이 계좌번호 in 쿼리 한 번
+    @Query("select new com.example.AccountProject.domain.AccountBalance(a.id, a.accountUser.id, a.accountNumber, " +
+            "a.accountStatus, a.balance, a.version, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.accountNumber in :accountNumbers")
+    List<AccountBalance> findBalancesByAccountNumberIn(@Param("accountNumbers") Collection<String> accountNumbers);
+
+    //잔액 저장소에 없는 계좌를 id로 조회할 때(GET /account/{id})
+    @Query("select new com.example.AccountProject.domain.AccountBalance(a.id, a.accountUser.id, a.accountNumber, " +
+            "a.accountStatus, a.balance, a.version, a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.id = :id")
+    Optional<AccountBalance> findBalanceById(@Param("id") long id);
+
+    //keyset 페이지 : offset 대신 id > after 로 seek -> 뒤 페이지로 가도 앞의 row를 읽지 않음
+    //Pageable은 limit 용도로만 사용(page 0), 응답에는 사용자 id만 있으므로 사용자 조인 없음
+    @Query("select a from Account a " +
+            "where a.accountUser.id = :userId and a.id > :after order by a.id")
+    List<Account> findPageByAccountUserId(
+            @Param("userId") long userId, @Param("after") long after, Pageable pageable);
+
+    @Query("select a from Account a where a.id > :after order by a.id")
+    List<Account> findPage(@Param("after") long after, Pageable pageable);
+
+    @Query("select a from Account a " +
+            "where a.accountStatus = :status and a.id > :after order by a.id")
+    List<Account> findPageByAccountStatus(
+            @Param("status") AccountStatus status, @Param("after") long after, Pageable pageable);
+
+    //전체 계좌 export : 목록을 한 번에 만들지 않고 커서로 읽음(트랜잭션 안에서만 사용, 사용 후 close)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select a from Account a order by a.id")
+    Stream<Account> streamAll();
+
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select a from Account a where a.accountStatus = :status order by a.id")
+    Stream<Account> streamByAccountStatus(@Param("status") AccountStatus status);
+
+    //잔액 대사 : id 구간(from, to] 계좌를 커서로 읽음(엔티티 대신 projection, 트랜잭션 안에서만 사용 후 close)
+    @QueryHints({
+            @QueryHint(name = HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HINT_READONLY, value = "true")
+    })
+    @Query("select new com.example.AccountProject.domain.AccountBalanceRow(" +
+            "a.id, a.accountUser.id, a.accountStatus, a.balance) " +
+            "from Account a where a.id > :from and a.id <= :to")
+    Stream<AccountBalanceRow> streamBalanceRows(@Param("from") long from, @Param("to") long to);
+
+    //잔액 사용 : 사용 중인 계좌이고 잔액이 충분할 때만 차감(조건부 update 한 번으로 처리)
+    //반환값 = 변경된 row 수(0이면 차감 실패)
+    @Modifying
+    @Query("update Account a set a.balance = a.balance - :amount, a.version = a.version + 1 " +
+            "where a.id = :id " +
+            "and a.accountStatus = com.example.AccountProject.type.AccountStatus.IN_USE " +
+            "and a.balance >= :amount")
+    int useBalance(@Param("id") Long id, @Param("amount") Long amount);
+
+    //잔액 사용 취소 : 사용 중인 계좌에만 금액 복구
+    @Modifying
+    @Query("update Account a set a.balance = a.balance + :amount, a.version = a.version + 1 " +
+            "where a.id = :id " +
+            "and a.accountStatus = com.example.AccountProject.type.AccountStatus.IN_USE")
+    int cancelBalance(@Param("id") Long id, @Param("amount") Long amount);
+
+    //잔액 저장소 write-behind 반영 : Redis에서 바뀐 상태를 그대로 덮어씀
+    //version이 더 큰 경우만 반영 -> 같은 항목을 다시 반영하거나(복구) 순서가 섞여도 최신 상태만 남음
+    @Modifying
+    @Query("update Account a set a.accountStatus = :status, a.balance = :balance, " +
+            "a.unRegisteredAt = :unRegisteredAt, a.updatedAt = :updatedAt, a.version = :version " +
+            "where a.id = :id and a.version < :version")
+    int writeBalance(@Param("id") Long id,
+                     @Param("status") AccountStatus status,
+                     @Param("balance") Long balance,
+                     @Param("unRegisteredAt") LocalDateTime unRegisteredAt,
+                     @Param("version") Long version,
+                     @Param("updatedAt") LocalDateTime updatedAt);
+
+    //계좌 해지 : 본인 계좌이고 사용 중이며 잔액이 0일 때만 해지(조건부 update 한 번으로 처리)
+    //반환값 = 변경된 row 수(0이면 해지 실패 -> 원인은 따로 조회)
+    @Modifying
+    @Query("update Account a set " +
+            "a.accountStatus = com.example.AccountProject.type.AccountStatus.UNREGISTERED, " +
+            "a.unRegisteredAt = :unRegisteredAt, a.updatedAt = :unRegisteredAt, a.version = a.version + 1 " +
+            "where a.accountNumber = :accountNumber " +
+            "and a.accountUser.id = :userId " +
+            "and a.balance = 0 " +
+            "and a.accountStatus = com.example.AccountProject.type.AccountStatus.IN_USE")
+    int unregister(@Param("accountNumber") String accountNumber,
+                   @Param("userId") Long userId,
+                   @Param("unRegisteredAt") LocalDateTime unRegisteredAt);
 }
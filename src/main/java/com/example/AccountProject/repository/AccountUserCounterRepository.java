@@ -0,0 +1,14 @@
+package com.example.AccountProject.repository;
+
+/**
+ * 사용자별 사용 중 계좌 수(activeAccountCount) 조건부 update
+ * AccountUser는 2차 캐시 대상이라 JPQL bulk update를 쓰면 account-user 영역 전체가 비워짐
+ * -> native update + 해당 사용자 캐시만 제거
+ */
+public interface AccountUserCounterRepository {
+
+    //최대 개수를 넘지 않을 때만 계좌 수 증가(변경된 row 수 반환, 0이면 사용자가 없거나 최대 개수 초과)
+    int increaseActiveAccountCount(long userId, int count, int max);
+
+    int decreaseActiveAccountCount(long userId);
+}
@@ -0,0 +1,70 @@
+package com.example.AccountProject.repository;
+
+import com.example.AccountProject.domain.AccountUser;
+import org.hibernate.query.NativeQuery;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.persistence.Cache;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+//AccountUserRepository 구현 조각(Spring Data가 이름(~Impl)으로 찾아서 붙임)
+public class AccountUserCounterRepositoryImpl implements AccountUserCounterRepository {
+
+    //native update가 건드리는 영역 표시 : 어떤 엔티티 테이블과도 겹치지 않으므로 Hibernate가 2차 캐시 영역을 통째로 비우지 않음
+    //(query space를 안 주면 native update 한 번에 모든 캐시 영역이 무효화됨)
+    static final String COUNTER_QUERY_SPACE = "account_user.active_account_count";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int increaseActiveAccountCount(long userId, int count, int max) {
+        int updated = entityManager.createNativeQuery(
+                        "update account_user set active_account_count = active_account_count + :count " +
+                                "where id = :userId and active_account_count + :count <= :max")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(COUNTER_QUERY_SPACE)
+                .setParameter("count", count)
+                .setParameter("userId", userId)
+                .setParameter("max", max)
+                .executeUpdate();
+        evictIfUpdated(userId, updated);
+        return updated;
+    }
+
+    @Override
+    @Transactional
+    public int decreaseActiveAccountCount(long userId) {
+        int updated = entityManager.createNativeQuery(
+                        "update account_user set active_account_count = active_account_count - 1 " +
+                                "where id = :userId and active_account_count > 0")
+                .unwrap(NativeQuery.class)
+                .addSynchronizedQuerySpace(COUNTER_QUERY_SPACE)
+                .setParameter("userId", userId)
+                .executeUpdate();
+        evictIfUpdated(userId, updated);
+        return updated;
+    }
+
+    //바뀐 사용자만 캐시에서 제거
+    //커밋 전에 다른 트랜잭션이 이전 값을 다시 캐시에 올릴 수 있으므로 커밋 후에 한 번 더 제거
+    private void evictIfUpdated(long userId, int updated) {
+        if (updated == 0) {
+            return;
+        }
+        Cache cache = entityManager.getEntityManagerFactory().getCache();
+        cache.evict(AccountUser.class, userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.evict(AccountUser.class, userId);
+                }
+            });
+        }
+    }
+}
@@ -2,9 +2,21 @@ package com.example.AccountProject.repository;
 
 import com.example.AccountProject.domain.AccountUser;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 @Repository
-public interface AccountUserRepository extends JpaRepository<AccountUser, Long> {
+public interface AccountUserRepository extends JpaRepository<AccountUser, Long>, AccountUserCounterRepository {
 
+    //계좌 수 증가/감소(increaseActiveAccountCount, decreaseActiveAccountCount)는 AccountUserCounterRepository
+
+    //기존 데이터 이관용 : 실제 사용 중인 계좌 수로 다시 계산
+    //(query space 없는 native update -> 2차 캐시 전체 무효화, 기동 시 한 번이라 괜찮음)
+    @Modifying
+    @Query(value = "update account_user u set active_account_count = " +
+            "(select count(*) from account a " +
+            "where a.account_user_id = u.id and a.account_status = 'IN_USE')",
+            nativeQuery = true)
+    int backfillActiveAccountCount();
 }
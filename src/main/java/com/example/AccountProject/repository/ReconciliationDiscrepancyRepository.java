@@ -0,0 +1,13 @@
+package com.example.AccountProject.repository;
+
+import com.example.AccountProject.domain.ReconciliationDiscrepancy;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface ReconciliationDiscrepancyRepository extends JpaRepository<ReconciliationDiscrepancy, Long> {
+
+    List<ReconciliationDiscrepancy> findByRunIdOrderById(Long runId);
+}
@@ -0,0 +1,15 @@
+package com.example.AccountProject.repository;
+
+import com.example.AccountProject.domain.ReconciliationRun;
+import com.example.AccountProject.type.ReconciliationStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ReconciliationRunRepository extends JpaRepository<ReconciliationRun, Long> {
+
+    //중단된(RUNNING) 실행 -> 이어서 처리
+    Optional<ReconciliationRun> findFirstByStatusOrderByIdDesc(ReconciliationStatus status);
+}
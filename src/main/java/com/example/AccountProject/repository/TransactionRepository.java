@@ -0,0 +1,18 @@
+package com.example.AccountProject.repository;
+
+import com.example.AccountProject.domain.Transaction;
+import com.example.AccountProject.type.TransactionResultType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+
+    Optional<Transaction> findByTransactionId(String transactionId);
+
+    //이미 취소된 거래인지 확인
+    boolean existsByCanceledTransactionIdAndTransactionResultType(
+            String canceledTransactionId, TransactionResultType transactionResultType);
+}
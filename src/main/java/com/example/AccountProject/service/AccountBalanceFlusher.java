@@ -0,0 +1,135 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.cache.AccountBalanceStore;
+import com.example.AccountProject.cache.UserAccountsCache;
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잔액 저장소(AccountBalanceStore) write-behind : Redis 큐 -> account 테이블 배치 반영
+ * 큐에서 batchSize개를 처리 중 목록으로 옮긴 뒤(Lua, 원자적) 트랜잭션 하나로 반영하고, 커밋되면 처리 중 목록을 비움.
+ * 반영 전에 노드가 죽으면 처리 중 목록에 남음 -> 기동 시, 다음 실행에서 먼저 다시 반영.
+ * (version이 더 큰 경우만 덮어쓰므로 같은 항목을 여러 번 반영해도 결과는 같음)
+ * 여러 노드 중 한 곳에서만 동작(RLock).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountBalanceFlusher {
+
+    static final String FLUSH_LOCK = "ACCOUNT_BALANCE_FLUSH";
+
+    private final AccountBalanceStore accountBalanceStore;
+    private final AccountRepository accountRepository;
+    private final UserAccountsCache userAccountsCache;
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account.balance-store.batch-size:500}")
+    private int batchSize;
+
+    //한 번 실행에서 처리하는 최대 배치 수(밀려 있을 때 한 노드가 오래 잡고 있지 않게)
+    @Value("${account.balance-store.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${account.balance-store.lock-lease-ms:30000}")
+    private long lockLeaseMs;
+
+    private Counter flushed;
+
+    @PostConstruct
+    public void init() {
+        flushed = meterRegistry.counter("account.balance_store.flushed");
+        if (accountBalanceStore.isEnabled()) {
+            meterRegistry.gauge("account.balance_store.write_behind.pending",
+                    accountBalanceStore, AccountBalanceStore::getWriteBehindSize);
+        }
+    }
+
+    //기동 시 복구 : 이전 실행이 반영하지 못한 항목(처리 중 목록, 큐)을 요청 받기 전에 반영
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverOnStartup() {
+        flush();
+    }
+
+    @Scheduled(fixedDelayString = "${account.balance-store.flush-interval-ms:200}")
+    public void flush() {
+        if (!accountBalanceStore.isEnabled()) {
+            return;
+        }
+        RLock lock = redissonClient.getLock(FLUSH_LOCK);
+        try {
+            if (!lock.tryLock(0, lockLeaseMs, TimeUnit.MILLISECONDS)) {
+                return; //다른 노드에서 반영 중
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            //락을 잡은 노드만 처리 중 목록을 사용 -> 남아 있으면 이전에 반영 도중 멈춘 것
+            int recovered = writeBatch(accountBalanceStore.pendingWriteBehind());
+            if (recovered > 0) {
+                log.info("Recovered {} account balance write-behind entries.", recovered);
+            }
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (writeBatch(accountBalanceStore.pollWriteBehind(batchSize)) < batchSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            //처리 중 목록에 남아 있으므로 다음 실행에서 다시 반영
+            log.warn("Failed to flush account balances.", e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    //한 배치 반영(같은 계좌는 마지막 version만 update), 반영한 항목 수 반환
+    int writeBatch(List<AccountBalance> balances) {
+        if (balances.isEmpty()) {
+            return 0;
+        }
+        Map<Long, AccountBalance> latest = new HashMap<>();
+        for (AccountBalance balance : balances) {
+            latest.merge(balance.getId(), balance,
+                    (current, other) -> current.getVersion() >= other.getVersion() ? current : other);
+        }
+
+        LocalDateTime updatedAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(status -> latest.values().forEach(balance ->
+                accountRepository.writeBalance(balance.getId(), balance.getAccountStatus(), balance.getBalance(),
+                        balance.getUnRegisteredAt(), balance.getVersion(), updatedAt)));
+        accountBalanceStore.ackWriteBehind();
+
+        //계좌 목록 캐시는 DB에서 읽으므로 반영한 뒤에 무효화
+        latest.values().stream()
+                .map(AccountBalance::getAccountUserId)
+                .distinct()
+                .forEach(userAccountsCache::evict);
+        flushed.increment(balances.size());
+        return balances.size();
+    }
+}
@@ -0,0 +1,181 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.domain.AccountEvent;
+import com.example.AccountProject.repository.AccountEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.BatchOptions;
+import org.redisson.api.RBatch;
+import org.redisson.api.RLock;
+import org.redisson.api.RStreamAsync;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * outbox(account_event) -> Redis stream 발행
+ * 미발행 이벤트를 batchSize씩 읽어서 RBatch 한 번으로 stream에 추가하고, 성공하면 sentAt 기록.
+ * 발행 후 sentAt 기록 전에 죽으면 다시 발행됨(at-least-once) -> 소비자는 eventId로 중복 제거.
+ * 순서 보장을 위해 여러 노드 중 한 곳에서만 동작(RLock).
+ * stream(XADD)은 Redis 5 이상 필요 -> account.outbox.relay-enabled로 켬(기본 꺼짐, 로컬 embedded redis는 2.8).
+ * 발행한 이벤트는 보존 기간(retention-ms)이 지나면 배치로 삭제.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountEventRelay {
+
+    static final String RELAY_LOCK = "ACCOUNT_EVENT_RELAY";
+
+    private final AccountEventRepository accountEventRepository;
+    private final RedissonClient redissonClient;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account.outbox.relay-enabled:false}")
+    private boolean relayEnabled;
+
+    @Value("${account.outbox.stream:ACCOUNT_EVENTS}")
+    private String streamName;
+
+    @Value("${account.outbox.batch-size:500}")
+    private int batchSize;
+
+    //한 번 실행에서 처리하는 최대 배치 수(밀려 있을 때 한 노드가 오래 잡고 있지 않게)
+    @Value("${account.outbox.max-batches-per-run:20}")
+    private int maxBatchesPerRun;
+
+    @Value("${account.outbox.lock-lease-ms:30000}")
+    private long lockLeaseMs;
+
+    @Value("${account.outbox.retention-ms:604800000}")
+    private long retentionMs;
+
+    private Counter published;
+    private Counter purged;
+
+    @PostConstruct
+    public void init() {
+        published = meterRegistry.counter("account.outbox.published");
+        purged = meterRegistry.counter("account.outbox.purged");
+        if (!relayEnabled) {
+            log.info("Account event relay is disabled. Events are kept for {} ms and then purged.", retentionMs);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${account.outbox.relay-interval-ms:500}")
+    public void relay() {
+        if (!relayEnabled) {
+            return;
+        }
+        runExclusively("relay", () -> {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (relayBatch() < batchSize) {
+                    break;
+                }
+            }
+        });
+    }
+
+    //보존 기간이 지난 이벤트 삭제
+    //발행을 꺼 둔 경우에는 소비할 곳이 없으므로 미발행 이벤트도 보존 기간이 지나면 삭제
+    @Scheduled(fixedDelayString = "${account.outbox.purge-interval-ms:60000}")
+    public void purge() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(retentionMs));
+        runExclusively("purge", () -> {
+            for (int i = 0; i < maxBatchesPerRun; i++) {
+                if (purgeBatch(before) < batchSize) {
+                    break;
+                }
+            }
+        });
+    }
+
+    //발행/삭제는 여러 노드 중 한 곳에서만(RLock), 실패하면 다음 실행에서 다시 시도
+    private void runExclusively(String task, Runnable work) {
+        RLock lock = redissonClient.getLock(RELAY_LOCK);
+        try {
+            if (!lock.tryLock(0, lockLeaseMs, TimeUnit.MILLISECONDS)) {
+                return; //다른 노드에서 처리 중
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        try {
+            work.run();
+        } catch (RuntimeException e) {
+            log.warn("Failed to {} account events.", task, e);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    //미발행 이벤트 한 배치 발행, 발행한 개수 반환
+    int relayBatch() {
+        List<AccountEvent> events = transactionTemplate.execute(
+                status -> accountEventRepository.findUnsent(PageRequest.of(0, batchSize)));
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+
+        RBatch batch = redissonClient.createBatch(BatchOptions.defaults());
+        RStreamAsync<String, String> stream = batch.getStream(streamName, StringCodec.INSTANCE);
+        List<Long> ids = new ArrayList<>(events.size());
+        for (AccountEvent event : events) {
+            stream.addAsync(StreamAddArgs.entries(toEntries(event)));
+            ids.add(event.getId());
+        }
+        batch.execute();
+
+        LocalDateTime sentAt = LocalDateTime.now();
+        transactionTemplate.executeWithoutResult(
+                status -> accountEventRepository.markSent(ids, sentAt));
+        published.increment(events.size());
+        return events.size();
+    }
+
+    //삭제한 개수 반환
+    int purgeBatch(LocalDateTime before) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<Long> ids = new ArrayList<>(
+                    accountEventRepository.findIdsSentBefore(before, PageRequest.of(0, batchSize)));
+            if (!relayEnabled && ids.size() < batchSize) {
+                ids.addAll(accountEventRepository.findIdsUnsentBefore(
+                        before, PageRequest.of(0, batchSize - ids.size())));
+            }
+            return ids.isEmpty() ? 0 : accountEventRepository.deleteByIds(ids);
+        });
+        int count = deleted == null ? 0 : deleted;
+        purged.increment(count);
+        return count;
+    }
+
+    private static Map<String, String> toEntries(AccountEvent event) {
+        Map<String, String> entries = new HashMap<>();
+        entries.put("eventId", String.valueOf(event.getId()));
+        entries.put("eventType", event.getEventType().name());
+        entries.put("accountNumber", event.getAccountNumber());
+        entries.put("userId", String.valueOf(event.getAccountUserId()));
+        entries.put("occurredAt", event.getOccurredAt().toString());
+        return entries;
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.repository.AccountRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌번호 발급기
+ * Redis 카운터에서 blockSize 만큼 번호 구간을 예약하고,
+ * 예약된 구간 안에서는 메모리의 AtomicLong으로 번호를 나눠줌.
+ * (노드가 여러 대여도 구간이 겹치지 않으므로 중복 번호 없음, 노드 재시작 시 남은 번호는 건너뜀)
+ * Redis 카운터가 사라지면(flush, failover) 예약할 때마다 확인해서 DB의 마지막 계좌번호 다음 값으로 다시 시작.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountNumberGenerator {
+
+    private static final String COUNTER_KEY = "ACCOUNT_NUMBER_SEQ";
+    private static final long FIRST_ACCOUNT_NUMBER = 1_000_000_000L;
+
+    private final RedissonClient redissonClient;
+    private final AccountRepository accountRepository;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account.number.block-size:1000}")
+    private long blockSize;
+
+    //현재 구간에서 다음에 나갈 번호, 구간의 끝(미포함)
+    private final AtomicLong next = new AtomicLong();
+    private volatile long blockEnd;
+
+    @PostConstruct
+    public void init() {
+        Gauge.builder("account.number.remaining", this, AccountNumberGenerator::getRemaining)
+                .register(meterRegistry);
+    }
+
+    public String next() {
+        while (true) {
+            long end = blockEnd;
+            long candidate = next.getAndIncrement();
+            if (candidate < end) {
+                return String.valueOf(candidate);
+            }
+            //구간 소진 -> 한 스레드만 새 구간 예약
+            refill(end);
+        }
+    }
+
+    //여러 개를 한 번에 발급(일괄 계좌 생성)
+    //구간 크기 이상이면 Redis에서 필요한 만큼 별도 구간을 바로 예약
+    public List<String> next(int count) {
+        List<String> accountNumbers = new ArrayList<>(count);
+        if (count < blockSize) {
+            for (int i = 0; i < count; i++) {
+                accountNumbers.add(next());
+            }
+            return accountNumbers;
+        }
+
+        long end = reserve(count);
+        for (long number = end - count; number < end; number++) {
+            accountNumbers.add(String.valueOf(number));
+        }
+        return accountNumbers;
+    }
+
+    //현재 구간에 남아있는 번호 개수(모니터링용)
+    public long getRemaining() {
+        return Math.max(0, blockEnd - next.get());
+    }
+
+    private synchronized void refill(long exhaustedEnd) {
+        if (blockEnd != exhaustedEnd) {
+            return; //다른 스레드가 이미 새 구간을 받아옴
+        }
+        long end = reserve(blockSize);
+        next.set(end - blockSize);
+        blockEnd = end;
+        log.debug("account number block reserved [{}, {})", end - blockSize, end);
+    }
+
+    //Redis 카운터에서 count개 구간 예약, 구간의 끝(미포함) 반환
+    private long reserve(long count) {
+        RAtomicLong counter = redissonClient.getAtomicLong(COUNTER_KEY);
+        while (true) {
+            if (!counter.isExists()) {
+                //동시에 여러 노드가 시도해도 한 번만 세팅됨
+                counter.compareAndSet(0, seed());
+            }
+            long end = counter.addAndGet(count);
+            if (end - count >= FIRST_ACCOUNT_NUMBER) {
+                return end;
+            }
+            //확인한 뒤 예약하기 전에 카운터가 사라짐 -> 0부터 받은 구간은 버리고 다시 세팅
+            log.warn("account number counter was reset, reseeding from the last account number");
+            counter.compareAndSet(end, seed());
+        }
+    }
+
+    //Redis에 카운터가 없으면(최초 기동, flush, failover) DB의 마지막 계좌번호 다음 값으로 시작
+    private long seed() {
+        return accountRepository.findFirstByOrderByIdDesc()
+                .map(account -> Long.parseLong(account.getAccountNumber()) + 1)
+                .orElse(FIRST_ACCOUNT_NUMBER);
+    }
+}
@@ -0,0 +1,311 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountBalanceRow;
+import com.example.AccountProject.domain.AccountBalanceSnapshot;
+import com.example.AccountProject.domain.ReconciliationDiscrepancy;
+import com.example.AccountProject.domain.ReconciliationRun;
+import com.example.AccountProject.dto.ActiveAccountCountMismatch;
+import com.example.AccountProject.repository.AccountBalanceSnapshotRepository;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.repository.ReconciliationDiscrepancyRepository;
+import com.example.AccountProject.repository.ReconciliationRunRepository;
+import com.example.AccountProject.type.AccountStatus;
+import com.example.AccountProject.type.DiscrepancyType;
+import com.example.AccountProject.type.ReconciliationStatus;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * 잔액/계좌 수 대사(reconciliation)
+ * account 테이블을 id 구간(chunkSize)으로 나눠서 구간마다 읽기 전용 트랜잭션 + 커서(fetch size)로 읽음
+ * parallelism 개 구간을 fork-join으로 동시에 집계 -> 사용자/상태별 집계를 스냅샷으로 저장하고 lastProcessedId 기록
+ * 메모리에는 처리 중인 구간의 집계만 있으므로 계좌 수와 상관없이 일정, 구간 사이 pauseMs 쉬어서 DB 부하 조절
+ * 중단되면(배포, 장애) 다음 실행이 lastProcessedId 다음부터 이어서 처리
+ * 마지막에 사용자별 activeAccountCount와 집계를 비교해서 불일치 리포트 저장
+ * 실행 중 생성/해지된 계좌는 불일치로 나올 수 있음 -> 다음 실행에서 다시 확인
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class AccountReconciliationJob {
+
+    static final String JOB_LOCK = "ACCOUNT_RECONCILIATION";
+
+    private final AccountRepository accountRepository;
+    private final ReconciliationRunRepository reconciliationRunRepository;
+    private final AccountBalanceSnapshotRepository accountBalanceSnapshotRepository;
+    private final ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+    private final RedissonClient redissonClient;
+    private final PlatformTransactionManager transactionManager;
+
+    @Value("${account.reconciliation.enabled:true}")
+    private boolean enabled;
+
+    //한 번에 읽는 id 구간 크기
+    @Value("${account.reconciliation.chunk-size:10000}")
+    private int chunkSize;
+
+    //동시에 집계하는 구간 수(사용하는 DB 커넥션 수)
+    @Value("${account.reconciliation.parallelism:4}")
+    private int parallelism;
+
+    //구간 묶음 사이 대기 시간(ms)
+    @Value("${account.reconciliation.pause-ms:100}")
+    private long pauseMs;
+
+    //불일치 리포트를 사용자 몇 명씩 비교할지
+    @Value("${account.reconciliation.report-page-size:1000}")
+    private int reportPageSize;
+
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate transaction;
+    private ForkJoinPool forkJoinPool;
+
+    @PostConstruct
+    public void init() {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        transaction = new TransactionTemplate(transactionManager);
+        forkJoinPool = new ForkJoinPool(parallelism);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        forkJoinPool.shutdownNow();
+    }
+
+    @Scheduled(cron = "${account.reconciliation.cron:0 0 3 * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            run();
+        } catch (RuntimeException e) {
+            //RUNNING 상태로 남음 -> 다음 실행에서 이어서 처리
+            log.warn("Account reconciliation stopped.", e);
+        }
+    }
+
+    //이어서 할 실행이 있으면 이어서, 없으면 새로 실행(다른 노드에서 실행 중이면 null)
+    public ReconciliationRun run() {
+        RLock lock = redissonClient.getLock(JOB_LOCK);
+        //lease 없이 잡음 -> 실행 중에는 watchdog이 연장, 노드가 죽으면 풀림
+        if (!lock.tryLock()) {
+            return null;
+        }
+        try {
+            ReconciliationRun run = reconciliationRunRepository
+                    .findFirstByStatusOrderByIdDesc(ReconciliationStatus.RUNNING)
+                    .orElseGet(this::startRun);
+            log.info("Account reconciliation started. runId : {}, from id : {}, to id : {}",
+                    run.getId(), run.getLastProcessedId(), run.getMaxAccountId());
+
+            while (run.getLastProcessedId() < run.getMaxAccountId()) {
+                long from = run.getLastProcessedId();
+                long to = Math.min(from + (long) chunkSize * parallelism, run.getMaxAccountId());
+                ChunkAggregate aggregate = forkJoinPool.invoke(new ChunkTask(from, to));
+                saveChunk(run, aggregate, to);
+                if (!pause()) {
+                    return run;
+                }
+            }
+            report(run);
+            return run;
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReconciliationRun startRun() {
+        long maxAccountId = accountRepository.findFirstByOrderByIdDesc()
+                .map(Account::getId)
+                .orElse(0L);
+        return reconciliationRunRepository.save(ReconciliationRun.builder()
+                .status(ReconciliationStatus.RUNNING)
+                .maxAccountId(maxAccountId)
+                .startedAt(LocalDateTime.now())
+                .build());
+    }
+
+    //구간 묶음 집계 결과와 진행 위치를 한 트랜잭션으로 저장 -> 이어서 실행해도 두 번 집계되지 않음
+    private void saveChunk(ReconciliationRun run, ChunkAggregate aggregate, long to) {
+        run.setLastProcessedId(to);
+        run.setProcessedCount(run.getProcessedCount() + aggregate.processedCount);
+        run.setTotalBalance(run.getTotalBalance() + aggregate.totalBalance);
+        run.setDiscrepancyCount(run.getDiscrepancyCount() + aggregate.discrepancies.size());
+
+        List<AccountBalanceSnapshot> snapshots = aggregate.byUserAndStatus.entrySet().stream()
+                .map(entry -> AccountBalanceSnapshot.builder()
+                        .runId(run.getId())
+                        .toAccountId(to)
+                        .accountUserId(entry.getKey().getUserId())
+                        .accountStatus(entry.getKey().getStatus())
+                        .accountCount(entry.getValue()[0])
+                        .totalBalance(entry.getValue()[1])
+                        .build())
+                .collect(Collectors.toList());
+        aggregate.discrepancies.forEach(discrepancy -> discrepancy.setRunId(run.getId()));
+
+        transaction.executeWithoutResult(status -> {
+            accountBalanceSnapshotRepository.saveAll(snapshots);
+            reconciliationDiscrepancyRepository.saveAll(aggregate.discrepancies);
+            reconciliationRunRepository.save(run);
+        });
+    }
+
+    //사용자별 activeAccountCount <-> 스냅샷의 사용 중 계좌 수 비교(사용자 id keyset 페이지)
+    private void report(ReconciliationRun run) {
+        long afterUserId = 0;
+        while (true) {
+            long after = afterUserId;
+            List<ActiveAccountCountMismatch> mismatches = readOnlyTransaction.execute(status ->
+                    accountBalanceSnapshotRepository.findActiveAccountCountMismatches(
+                            run.getId(), after, reportPageSize));
+            if (mismatches == null || mismatches.isEmpty()) {
+                break;
+            }
+            List<ReconciliationDiscrepancy> discrepancies = mismatches.stream()
+                    .map(mismatch -> ReconciliationDiscrepancy.builder()
+                            .runId(run.getId())
+                            .discrepancyType(DiscrepancyType.ACTIVE_ACCOUNT_COUNT_MISMATCH)
+                            .accountUserId(mismatch.getUserId())
+                            .expected(mismatch.getExpected())
+                            .actual(mismatch.getActual())
+                            .build())
+                    .collect(Collectors.toList());
+            run.setDiscrepancyCount(run.getDiscrepancyCount() + discrepancies.size());
+            transaction.executeWithoutResult(
+                    status -> reconciliationDiscrepancyRepository.saveAll(discrepancies));
+            afterUserId = mismatches.get(mismatches.size() - 1).getUserId();
+        }
+
+        run.setStatus(ReconciliationStatus.COMPLETED);
+        run.setFinishedAt(LocalDateTime.now());
+        transaction.executeWithoutResult(status -> reconciliationRunRepository.save(run));
+        log.info("Account reconciliation completed. runId : {}, accounts : {}, total balance : {}, discrepancies : {}",
+                run.getId(), run.getProcessedCount(), run.getTotalBalance(), run.getDiscrepancyCount());
+    }
+
+    //false : 중단 요청(interrupt) -> RUNNING 상태로 두고 종료
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return !Thread.currentThread().isInterrupted();
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    //id 구간 (from, to] 집계 : chunkSize보다 크면 반으로 나눠서 fork
+    private class ChunkTask extends RecursiveTask<ChunkAggregate> {
+        private final long from;
+        private final long to;
+
+        ChunkTask(long from, long to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected ChunkAggregate compute() {
+            if (to - from <= chunkSize) {
+                return readOnlyTransaction.execute(status -> aggregate(from, to));
+            }
+            long middle = from + (to - from) / 2;
+            ChunkTask left = new ChunkTask(from, middle);
+            left.fork();
+            ChunkAggregate right = new ChunkTask(middle, to).compute();
+            return left.join().merge(right);
+        }
+    }
+
+    private ChunkAggregate aggregate(long from, long to) {
+        ChunkAggregate aggregate = new ChunkAggregate();
+        try (Stream<AccountBalanceRow> rows = accountRepository.streamBalanceRows(from, to)) {
+            rows.forEach(aggregate::add);
+        }
+        return aggregate;
+    }
+
+    //구간 집계 : (사용자, 상태) -> [계좌 수, 잔액 합], 계좌 단위 불일치
+    private static class ChunkAggregate {
+        private final Map<UserStatus, long[]> byUserAndStatus = new HashMap<>();
+        private final List<ReconciliationDiscrepancy> discrepancies = new ArrayList<>();
+        private long processedCount;
+        private long totalBalance;
+
+        void add(AccountBalanceRow row) {
+            long balance = row.getBalance() == null ? 0 : row.getBalance();
+            long[] sum = byUserAndStatus.computeIfAbsent(
+                    new UserStatus(row.getAccountUserId(), row.getAccountStatus()), key -> new long[2]);
+            sum[0]++;
+            sum[1] += balance;
+            processedCount++;
+            totalBalance += balance;
+
+            if (balance < 0) {
+                discrepancies.add(accountDiscrepancy(DiscrepancyType.NEGATIVE_BALANCE, row, balance));
+            } else if (balance > 0 && row.getAccountStatus() == AccountStatus.UNREGISTERED) {
+                discrepancies.add(accountDiscrepancy(DiscrepancyType.UNREGISTERED_WITH_BALANCE, row, balance));
+            }
+        }
+
+        ChunkAggregate merge(ChunkAggregate other) {
+            other.byUserAndStatus.forEach((key, sum) -> byUserAndStatus.merge(key, sum, (a, b) -> {
+                a[0] += b[0];
+                a[1] += b[1];
+                return a;
+            }));
+            discrepancies.addAll(other.discrepancies);
+            processedCount += other.processedCount;
+            totalBalance += other.totalBalance;
+            return this;
+        }
+
+        private static ReconciliationDiscrepancy accountDiscrepancy(
+                DiscrepancyType type, AccountBalanceRow row, long balance) {
+            return ReconciliationDiscrepancy.builder()
+                    .discrepancyType(type)
+                    .accountUserId(row.getAccountUserId())
+                    .accountId(row.getId())
+                    .expected(0L)
+                    .actual(balance)
+                    .build();
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    private static class UserStatus {
+        private final Long userId;
+        private final AccountStatus status;
+    }
+}
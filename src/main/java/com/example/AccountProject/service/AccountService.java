@@ -1,22 +1,41 @@
 package com.example.AccountProject.service;
 
 
+import com.example.AccountProject.aop.SingleFlight;
+import com.example.AccountProject.cache.AccountBalanceStore;
+import com.example.AccountProject.cache.UserAccountsCache;
 import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.domain.AccountEvent;
+import com.example.AccountProject.domain.AccountInfo;
 import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDetail;
 import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.dto.AccountLookup;
+import com.example.AccountProject.dto.AccountPage;
+import com.example.AccountProject.dto.CreateAccount;
+import com.example.AccountProject.dto.CreateAccountBatch;
 import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.repository.AccountEventRepository;
 import com.example.AccountProject.repository.AccountRepository;
 import com.example.AccountProject.repository.AccountUserRepository;
+import com.example.AccountProject.type.AccountEventType;
 import com.example.AccountProject.type.AccountStatus;
 import com.example.AccountProject.type.ErrorCode;
 import com.google.common.collect.FluentIterable;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import javax.transaction.Transactional;
+import javax.persistence.EntityManager;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static com.example.AccountProject.type.AccountStatus.IN_USE;
 import static com.example.AccountProject.type.ErrorCode.*;
@@ -24,9 +43,18 @@ import static com.example.AccountProject.type.ErrorCode.*;
 @Service
 @RequiredArgsConstructor
 public class AccountService {
+    //사용자 1명당 최대 계좌 수
+    public static final int MAX_ACCOUNT_PER_USER = 5;
+    //export 중 영속성 컨텍스트를 비우는 간격(읽은 엔티티가 쌓이지 않게)
+    private static final int EXPORT_CLEAR_INTERVAL = Integer.parseInt(AccountRepository.EXPORT_FETCH_SIZE);
 
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
+    private final AccountEventRepository accountEventRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final UserAccountsCache userAccountsCache;
+    private final AccountBalanceStore accountBalanceStore;
+    private final EntityManager entityManager;
 
     /**
      * 사용자가 있는지 조회
@@ -38,75 +66,209 @@ public class AccountService {
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
 
-        //사용자 조회
-        AccountUser accountUser = accountUserRepository.findById(userId)
-                //orElseThrow 값이 있으면 파라미터값 받아오고 없으면 Exception 발생.
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));
+        //계좌 개수 최대 5개 메소드 호출(사용자 계좌 수 +1을 조건부 update로 선점)
+        validateCreateAccount(userId);
+
+        //사용자는 위에서 확인됐으므로 조회 없이 참조(프록시)만 사용
+        AccountUser accountUser = accountUserRepository.getReferenceById(userId);
 
-        //계좌 개수 최대 5개 메소드 호출
-        validateCreateAccount(accountUser);
+        //새로운 계좌 번호 생성(미리 예약된 구간에서 발급 -> 매번 조회 쿼리 없음, 동시 생성 시에도 중복 X)
+        String newAccountNumber = accountNumberGenerator.next();
 
-        //새로운 계좌 번호 생성
-        String newAccountNumber = accountRepository.findFirstByOrderByIdDesc() //최근에 생성된 계좌
-                .map(account -> (Integer.parseInt(account.getAccountNumber())) + 1 + "") //계좌가 있으면 +1 후 문자로 변경
-                .orElse("1000000000"); //계좌가 없으면 최초생성
+        //계좌 목록 캐시 무효화(커밋 이후)
+        userAccountsCache.evictAfterCommit(accountUser.getId());
 
         //신규 계좌 저장.
         // builder로 account 계좌 저장-> Account(Entity) -> accountRepository에 저장 -> 그러고 나온 entity
         //-> fromEntity에 저장 -> fromEntity의 Entity -> AccountDto에 저장
         //-> Controller에서 받아서 사용
-        return AccountDto.fromEntity(
-                accountRepository.save(Account.builder()
-                        .accountUser(accountUser)
+        Account account = accountRepository.save(Account.builder()
+                .accountUser(accountUser)
+                .accountStatus(IN_USE)
+                .accountNumber(newAccountNumber)
+                .balance(initialBalance)
+                .registeredAt(LocalDateTime.now())
+                .build());
+
+        //계좌 생성 이벤트(outbox) : 같은 트랜잭션에서 저장, 발행은 AccountEventRelay가 따로
+        accountEventRepository.save(AccountEvent.of(AccountEventType.CREATED, account));
+
+        return AccountDto.fromEntity(account);
+    }
+
+    /**
+     * 일괄 계좌 생성(항목별 결과 반환)
+     * 사용자 조회 1번(in), 사용자별 계좌 수 선점 update 1번,
+     * 계좌번호는 한 번에 예약, 저장은 JDBC batch insert
+     */
+    @Transactional
+    public List<CreateAccountBatch.Result> createAccounts(List<CreateAccount.Request> requests) {
+        Set<Long> userIds = new HashSet<>();
+        requests.forEach(request -> userIds.add(request.getUserId()));
+
+        Map<Long, AccountUser> accountUsers = new HashMap<>();
+        accountUserRepository.findAllById(userIds)
+                .forEach(accountUser -> accountUsers.put(accountUser.getId(), accountUser));
+
+        //사용자별 요청 개수만큼 계좌 수 선점(사용자당 조건부 update 1번)
+        Map<Long, Integer> requestedCounts = new HashMap<>();
+        requests.forEach(request -> requestedCounts.merge(request.getUserId(), 1, Integer::sum));
+        Map<Long, Integer> reservedCounts = new HashMap<>();
+        accountUsers.forEach((userId, accountUser) -> reservedCounts.put(
+                userId, reserveAccountSlots(accountUser, requestedCounts.get(userId))));
+
+        //항목별 검증(사용자 없음, 최대 5개) -> 통과한 항목만 생성 대상
+        ErrorCode[] errors = new ErrorCode[requests.size()];
+        int acceptedCount = 0;
+        for (int i = 0; i < requests.size(); i++) {
+            Long userId = requests.get(i).getUserId();
+            if (!accountUsers.containsKey(userId)) {
+                errors[i] = USER_NOT_FOUND;
+                continue;
+            }
+            int reserved = reservedCounts.get(userId);
+            if (reserved == 0) {
+                errors[i] = MAX_ACCOUNT_PER_USER_5;
+                continue;
+            }
+            reservedCounts.put(userId, reserved - 1);
+            acceptedCount++;
+        }
+
+        Iterator<String> accountNumbers = accountNumberGenerator.next(acceptedCount).iterator();
+        LocalDateTime now = LocalDateTime.now();
+        List<Account> accounts = new ArrayList<>(acceptedCount);
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] == null) {
+                CreateAccount.Request request = requests.get(i);
+                accounts.add(Account.builder()
+                        .accountUser(accountUsers.get(request.getUserId()))
                         .accountStatus(IN_USE)
-                        .accountNumber(newAccountNumber)
-                        .balance(initialBalance)
-                        .registeredAt(LocalDateTime.now())
-                        .build())
-        );
+                        .accountNumber(accountNumbers.next())
+                        .balance(request.getInitialBalance())
+                        .registeredAt(now)
+                        .build());
+            }
+        }
+        accountRepository.saveAll(accounts);
+        accountEventRepository.saveAll(accounts.stream()
+                .map(account -> AccountEvent.of(AccountEventType.CREATED, account))
+                .collect(Collectors.toList()));
+
+        Set<Long> createdUserIds = new HashSet<>();
+        List<CreateAccountBatch.Result> results = new ArrayList<>(requests.size());
+        Iterator<Account> saved = accounts.iterator();
+        for (int i = 0; i < requests.size(); i++) {
+            if (errors[i] != null) {
+                results.add(CreateAccountBatch.Result.fail(requests.get(i).getUserId(), errors[i]));
+                continue;
+            }
+            AccountDto accountDto = AccountDto.fromEntity(saved.next());
+            createdUserIds.add(accountDto.getUserId());
+            results.add(CreateAccountBatch.Result.success(accountDto));
+        }
+        createdUserIds.forEach(userAccountsCache::evictAfterCommit);
+
+        return results;
     }
 
     //계좌 개수 최대 5개로 제한
-    private void validateCreateAccount(AccountUser accountUser) {
-        if(accountRepository.countByAccountUser(accountUser) >= 5) {
+    //count 쿼리 대신 사용자 row의 activeAccountCount를 "5 미만일 때만 +1" 조건부 update
+    //-> 동시에 생성해도 6개가 되지 않음, 변경된 row가 없으면 사용자가 없거나 5개 초과
+    private void validateCreateAccount(Long userId) {
+        if (accountUserRepository.increaseActiveAccountCount(userId, 1, MAX_ACCOUNT_PER_USER) == 0) {
+            if (!accountUserRepository.existsById(userId)) {
+                throw new AccountException(ErrorCode.USER_NOT_FOUND);
+            }
             throw new AccountException(ErrorCode.MAX_ACCOUNT_PER_USER_5);
         }
     }
 
+    //사용자별 계좌 수를 requested개 만큼 선점, 실제로 선점한 개수 반환
+    private int reserveAccountSlots(AccountUser accountUser, int requested) {
+        int allowed = Math.min(requested, MAX_ACCOUNT_PER_USER - accountUser.getActiveAccountCount());
+        if (allowed <= 0) {
+            return 0;
+        }
+        if (accountUserRepository.increaseActiveAccountCount(
+                accountUser.getId(), allowed, MAX_ACCOUNT_PER_USER) == 1) {
+            return allowed;
+        }
+        //그 사이 다른 요청이 계좌를 만든 경우 -> 1개씩 가능한 만큼만
+        int reserved = 0;
+        while (reserved < allowed && accountUserRepository.increaseActiveAccountCount(
+                accountUser.getId(), 1, MAX_ACCOUNT_PER_USER) == 1) {
+            reserved++;
+        }
+        return reserved;
+    }
+
     //계좌 해지 API
+    //"본인 계좌 + 사용 중 + 잔액 0" 조건부 update 한 번으로 해지 -> 조회/락 없이 동시 요청에도 덮어쓰기 없음
+    //실패했을 때만 계좌를 조회해서 원인(ErrorCode)을 알려줌
+    //잔액 저장소 사용 시 : Redis(Lua)에서 검증 + 해지, account 테이블은 write-behind로 나중에 반영
     @Transactional
     public AccountDto deleteAccount(Long userId, String accountNumber) {
-        AccountUser accountUser = accountUserRepository.findById(userId)                //유저 아이디 조회
-                .orElseThrow(() -> new AccountException(ErrorCode.USER_NOT_FOUND));     //사용자가 없을 때
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ErrorCode.ACCOUNT_NOT_FOUND));  //계좌가 없을 때,
-        validateDeleteAccount(accountUser, account);
+        LocalDateTime unRegisteredAt = LocalDateTime.now();
+        if (accountBalanceStore.isEnabled()) {
+            unregisterInStore(userId, accountNumber, unRegisteredAt);
+        } else if (accountRepository.unregister(accountNumber, userId, unRegisteredAt) == 0) {
+            throw new AccountException(diagnoseDeleteFailure(userId, accountNumber));
+        }
 
-        //계좌 해지 후 -> 상태 업데이트, 시간등록
-        account.setAccountStatus(AccountStatus.UNREGISTERED);
-        account.setUnRegisteredAt(LocalDateTime.now());
+        //사용 중인 계좌 수 -1
+        accountUserRepository.decreaseActiveAccountCount(userId);
+        userAccountsCache.evictAfterCommit(userId);
+        accountEventRepository.save(AccountEvent.of(AccountEventType.UNREGISTERED, userId, accountNumber));
 
-        //없어도 동작 -> AccountServiceTest위해 작성.
-        accountRepository.save(account);
+        return AccountDto.builder()
+                .userId(userId)
+                .accountNumber(accountNumber)
+                .accountStatus(AccountStatus.UNREGISTERED)
+                .balance(0L)
+                .unRegisteredAt(unRegisteredAt)
+                .build();
+    }
 
-        return AccountDto.fromEntity(account);
+    //저장소는 사용자 정보가 없으므로 실패했을 때만 사용자 존재 여부 확인(DB 모드와 같은 순서로 응답)
+    private void unregisterInStore(Long userId, String accountNumber, LocalDateTime unRegisteredAt) {
+        try {
+            accountBalanceStore.unregister(userId, accountNumber, unRegisteredAt);
+        } catch (AccountException e) {
+            if (!accountUserRepository.existsById(userId)) {
+                throw new AccountException(USER_NOT_FOUND);
+            }
+            throw e;
+        }
     }
 
     //계좌 해지가 불가능한 경우
-    private void validateDeleteAccount(AccountUser accountUser, Account account) {
-        if (accountUser.getId() != account.getAccountUser().getId()) {
-            throw new AccountException(USER_ACCOUNT_UN_MATCH);            //사용자 아이디, 계좌 소유주가 다른 경우
+    private ErrorCode diagnoseDeleteFailure(Long userId, String accountNumber) {
+        if (!accountUserRepository.existsById(userId)) {
+            return USER_NOT_FOUND;                                         //사용자가 없을 때
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElse(null);
+        if (account == null) {
+            return ACCOUNT_NOT_FOUND;                                      //계좌가 없을 때
+        }
+        if (!Objects.equals(userId, account.getAccountUser().getId())) {
+            return USER_ACCOUNT_UN_MATCH;                                  //사용자 아이디, 계좌 소유주가 다른 경우
         }
         if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
-            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);     //계좌가 이미 해지 상태인 경우
+            return ACCOUNT_ALREADY_UNREGISTERED;                           //계좌가 이미 해지 상태인 경우
         }
         if (account.getBalance() > 0) {
-            throw new AccountException(BALANCE_NOT_EMPTY);                //잔액이 있는 경우 실패 응답
+            return BALANCE_NOT_EMPTY;                                      //잔액이 있는 경우 실패 응답
         }
+        //update 이후 조회 전에 다른 요청이 계좌를 바꾼 경우
+        return ACCOUNT_TRANSACTION_LOCK;
     }
 
-    //계좌확인 API
-    @Transactional
+    //사용자의 전체 계좌 정보(등록/해지 일시 포함)
+    //@SingleFlight : 같은 사용자 조회가 동시에 몰리면 조회 1번 결과를 같이 사용
+    @SingleFlight(key = "#userId")
+    @Transactional(readOnly = true)
     public List<AccountDto> getAccountsByUserId(Long userId) {
         AccountUser accountUser = accountUserRepository.findById(userId)
                 .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
@@ -114,18 +276,168 @@ public class AccountService {
         List<Account> accounts = accountRepository.findByAccountUser(accountUser);
 
         //List<Account>를 List<AccountDto> 타입으로 변환.
-        return accounts.stream()
+        List<AccountDto> accountDtos = accounts.stream()
                 .map(AccountDto::fromEntity)
                 .collect(Collectors.toList());
+        if (accountBalanceStore.isEnabled()) {
+            //잔액/상태/해지 일시는 저장소 값(write-behind 반영 전일 수 있음)
+            Map<String, AccountBalance> balances = accountBalanceStore.getAll(accountNumbersOf(
+                    accountDtos, AccountDto::getAccountNumber));
+            accountDtos.forEach(accountDto -> Optional.ofNullable(balances.get(accountDto.getAccountNumber()))
+                    .ifPresent(balance -> {
+                        accountDto.setAccountStatus(balance.getAccountStatus());
+                        accountDto.setBalance(balance.getBalance());
+                        accountDto.setUnRegisteredAt(balance.getUnRegisteredAt());
+                    }));
+        }
+        return accountDtos;
     }
 
+    //계좌확인 API
+    //캐시에 있으면 DB 트랜잭션 없이 바로 응답, 없을 때만 projection 쿼리 한 번으로 AccountInfo 조회
+    //캐시에 넣을 값이라 replica가 아니라 primary에서 읽음(복제 지연된 목록이 TTL 동안 캐시되지 않게)
+    //캐시가 비었을 때 몰린 요청도 DB 조회는 사용자당 1번(@SingleFlight)
+    //잔액 저장소 사용 시 : 계좌 목록은 캐시, 잔액은 저장소 값(캐시/DB의 잔액은 write-behind 반영 전일 수 있음)
+    @SingleFlight(key = "#userId")
+    public List<AccountInfo> getAccountInfosByUserId(Long userId) {
+        List<AccountInfo> accountInfos = userAccountsCache.get(userId, () -> loadAccountInfosByUserId(userId));
+        if (!accountBalanceStore.isEnabled() || accountInfos.isEmpty()) {
+            return accountInfos;
+        }
+        //캐시된 객체는 다른 요청과 공유하므로 바꾸지 않고 새로 만듦
+        Map<String, AccountBalance> balances = accountBalanceStore.getAll(accountNumbersOf(
+                accountInfos, AccountInfo::getAccountNumber));
+        return accountInfos.stream()
+                .map(accountInfo -> {
+                    AccountBalance balance = balances.get(accountInfo.getAccountNumber());
+                    return balance == null
+                            ? accountInfo
+                            : new AccountInfo(accountInfo.getAccountNumber(), balance.getBalance());
+                })
+                .collect(Collectors.toList());
+    }
 
-    @Transactional
-    public Account getAccount(Long id) {
+    private static <T> Set<String> accountNumbersOf(List<T> accounts, Function<T, String> accountNumber) {
+        return accounts.stream()
+                .map(accountNumber)
+                .collect(Collectors.toSet());
+    }
+
+    private List<AccountInfo> loadAccountInfosByUserId(Long userId) {
+        List<AccountInfo> accountInfos = accountRepository.findInfoByAccountUserId(userId);
+
+        //계좌가 없을 때만 사용자 존재 여부 확인
+        if (accountInfos.isEmpty() && !accountUserRepository.existsById(userId)) {
+            throw new AccountException(USER_NOT_FOUND);
+        }
+        return accountInfos;
+    }
+
+    //여러 계좌 잔액 조회 : 중복 제거 후 in 쿼리 1번, 결과는 요청 순서대로(없거나 해지된 계좌는 found = false)
+    //잔액 저장소 사용 시 : Redis에서 조회, 저장소에 없는 계좌만 DB에서 읽어서 올림
+    @Transactional(readOnly = true)
+    public List<AccountLookup.Response> lookupAccounts(List<String> accountNumbers) {
+        Map<String, AccountInfo> accountInfos = new HashMap<>();
+        if (accountBalanceStore.isEnabled()) {
+            accountBalanceStore.getAll(accountNumbers).values().stream()
+                    .filter(balance -> balance.getAccountStatus() == IN_USE)
+                    .forEach(balance -> accountInfos.put(balance.getAccountNumber(),
+                            new AccountInfo(balance.getAccountNumber(), balance.getBalance())));
+        } else {
+            accountRepository.findByAccountNumberIn(new HashSet<>(accountNumbers))
+                    .forEach(accountInfo -> accountInfos.put(accountInfo.getAccountNumber(), accountInfo));
+        }
+
+        return accountNumbers.stream()
+                .map(accountNumber -> {
+                    AccountInfo accountInfo = accountInfos.get(accountNumber);
+                    return accountInfo == null
+                            ? AccountLookup.Response.notFound(accountNumber)
+                            : AccountLookup.Response.found(accountInfo);
+                })
+                .collect(Collectors.toList());
+    }
+
+    //사용자 계좌 목록(keyset 페이지) : id가 after보다 큰 계좌를 id 순서로 limit개
+    @SingleFlight(key = "#userId + ':' + #after + ':' + #limit")
+    @Transactional(readOnly = true)
+    public AccountPage.Response getAccountPageByUserId(Long userId, Long after, int limit) {
+        int pageSize = pageSizeOf(limit);
+        List<Account> accounts = accountRepository.findPageByAccountUserId(
+                userId, cursorOf(after), pageOf(pageSize));
+
+        //첫 페이지가 비어 있을 때만 사용자 존재 여부 확인
+        if (accounts.isEmpty() && after == null && !accountUserRepository.existsById(userId)) {
+            throw new AccountException(USER_NOT_FOUND);
+        }
+        return toPage(accounts, pageSize);
+    }
+
+    //전체 계좌 목록(관리자용, keyset 페이지), status가 없으면 모든 상태
+    @Transactional(readOnly = true)
+    public AccountPage.Response getAccountPage(AccountStatus status, Long after, int limit) {
+        int pageSize = pageSizeOf(limit);
+        List<Account> accounts = status == null
+                ? accountRepository.findPage(cursorOf(after), pageOf(pageSize))
+                : accountRepository.findPageByAccountStatus(status, cursorOf(after), pageOf(pageSize));
+        return toPage(accounts, pageSize);
+    }
+
+    //전체 계좌 export : 커서로 읽으면서 한 건씩 writer로 넘김
+    //EXPORT_CLEAR_INTERVAL 건마다 영속성 컨텍스트를 비워서 계좌 수와 상관없이 메모리 사용량 일정
+    @Transactional(readOnly = true)
+    public long exportAccounts(AccountStatus status, Consumer<AccountDto> writer) {
+        long exported = 0;
+        try (Stream<Account> accounts = status == null
+                ? accountRepository.streamAll()
+                : accountRepository.streamByAccountStatus(status)) {
+            Iterator<Account> iterator = accounts.iterator();
+            while (iterator.hasNext()) {
+                writer.accept(AccountDto.fromEntity(iterator.next()));
+                if (++exported % EXPORT_CLEAR_INTERVAL == 0) {
+                    entityManager.clear();
+                }
+            }
+        }
+        return exported;
+    }
+
+    private static int pageSizeOf(int limit) {
+        return Math.max(1, Math.min(limit, AccountPage.MAX_LIMIT));
+    }
+
+    private static long cursorOf(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    //다음 페이지가 있는지 알기 위해 1개 더 조회
+    private static Pageable pageOf(int pageSize) {
+        return PageRequest.of(0, pageSize + 1);
+    }
+
+    private static AccountPage.Response toPage(List<Account> accounts, int pageSize) {
+        boolean hasNext = accounts.size() > pageSize;
+        List<Account> page = hasNext ? accounts.subList(0, pageSize) : accounts;
+        return AccountPage.Response.builder()
+                .accounts(page.stream()
+                        .map(AccountDto::fromEntity)
+                        .collect(Collectors.toList()))
+                .nextCursor(hasNext ? page.get(pageSize - 1).getId() : null)
+                .build();
+    }
+
+    //계좌 조회 API : 엔티티 대신 응답 DTO(AccountDetail)를 projection 쿼리로 바로 조회
+    //잔액 저장소 사용 시 : 저장소 값으로 응답(잔액/상태는 write-behind 반영 전일 수 있음), 저장소에 없을 때만 DB에서 올림
+    @SingleFlight(key = "#id")
+    @Transactional(readOnly = true)
+    public AccountDetail getAccount(Long id) {
         if(id < 0){
-            throw new RuntimeException("Minus");
+            throw new AccountException(INVALID_REQUEST);
         }
-        return accountRepository.findById(id).get();
+        Optional<AccountDetail> accountDetail = accountBalanceStore.isEnabled()
+                ? accountBalanceStore.getById(id).map(AccountDetail::from)
+                : accountRepository.findDetailById(id);
+        return accountDetail.orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
     }
 
 
@@ -0,0 +1,123 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.aop.MetricOutcome;
+import com.example.AccountProject.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.example.AccountProject.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * 계좌번호 단위 락
+ * redis 모드 : Redisson RLock(여러 노드에서 공유)
+ * local 모드 : 단일 노드용, 계좌번호 해시로 나눈 ReentrantLock 스트라이프
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class LockService {
+
+    private static final String LOCK_PREFIX = "ACLK:";
+
+    private final RedissonClient redissonClient;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account.lock.mode:redis}")
+    private String mode;
+
+    @Value("${account.lock.wait-time-ms:200}")
+    private long defaultWaitTimeMs;
+
+    @Value("${account.lock.lease-time-ms:10000}")
+    private long defaultLeaseTimeMs;
+
+    @Value("${account.lock.local-stripes:1024}")
+    private int localStripes;
+
+    private ReentrantLock[] stripes;
+
+    @PostConstruct
+    public void init() {
+        stripes = new ReentrantLock[localStripes];
+        for (int i = 0; i < localStripes; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public void lock(String accountNumber) {
+        lock(accountNumber, -1, -1);
+    }
+
+    public void lock(String accountNumber, long waitTimeMs, long leaseTimeMs) {
+        long waitTime = waitTimeMs < 0 ? defaultWaitTimeMs : waitTimeMs;
+        long leaseTime = leaseTimeMs < 0 ? defaultLeaseTimeMs : leaseTimeMs;
+        log.debug("Trying lock for accountNumber : {}", accountNumber);
+
+        boolean locked = false;
+        long start = System.nanoTime();
+        try {
+            locked = isLocalMode()
+                    ? stripeOf(accountNumber).tryLock(waitTime, TimeUnit.MILLISECONDS)
+                    : getLock(accountNumber).tryLock(waitTime, leaseTime, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+        } finally {
+            recordWait(start, locked);
+        }
+
+        //대기 시간 안에 못 잡으면 DB까지 가지 않고 바로 실패
+        if (!locked) {
+            log.debug("Lock acquisition failed for accountNumber : {}", accountNumber);
+            throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    public void unlock(String accountNumber) {
+        log.debug("Unlock for accountNumber : {}", accountNumber);
+        if (isLocalMode()) {
+            ReentrantLock lock = stripeOf(accountNumber);
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+            return;
+        }
+
+        //lease 시간이 지나 이미 풀린 락은 건드리지 않음
+        RLock lock = getLock(accountNumber);
+        if (lock.isHeldByCurrentThread()) {
+            lock.unlock();
+        }
+    }
+
+    //락 대기 시간(tag : mode, outcome = SUCCESS / ACCOUNT_TRANSACTION_LOCK)
+    private void recordWait(long start, boolean locked) {
+        Timer.builder("account.lock.wait")
+                .tag("mode", isLocalMode() ? "local" : "redis")
+                .tag("outcome", locked ? MetricOutcome.SUCCESS : ACCOUNT_TRANSACTION_LOCK.name())
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean isLocalMode() {
+        return "local".equalsIgnoreCase(mode);
+    }
+
+    private RLock getLock(String accountNumber) {
+        return redissonClient.getLock(LOCK_PREFIX + accountNumber);
+    }
+
+    private ReentrantLock stripeOf(String accountNumber) {
+        return stripes[(accountNumber.hashCode() & Integer.MAX_VALUE) % stripes.length];
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.config.RateLimitProperties;
+import com.example.AccountProject.config.RateLimitProperties.Limit;
+import com.example.AccountProject.exception.RateLimitException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RRateLimiter;
+import org.redisson.api.RateIntervalUnit;
+import org.redisson.api.RateType;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * API 요청 한도(토큰 버킷) : 사용자별 -> 전체 순서로 확인, 초과하면 RateLimitException(429)
+ * redis 모드 : Redisson RRateLimiter(여러 노드가 한도 공유), Redis 장애 시 redisBackoffMs 동안 로컬 토큰 버킷으로 처리
+ * local 모드 : 노드별 로컬 토큰 버킷
+ * 한 번 거절된 키는 다시 채워질 때까지 로컬에서 바로 거절 -> 몰리는 요청은 Redis 왕복 없이 처리
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class RateLimitService {
+
+    private static final String KEY_PREFIX = "RATE:";
+    //RRateLimiter 설정/토큰 키 유지 시간 : 이 시간 동안 요청이 없으면 Redis에서 지워짐
+    private static final Duration REDIS_KEY_TTL = Duration.ofMinutes(10);
+
+    private final RedissonClient redissonClient;
+    private final RateLimitProperties properties;
+    private final MeterRegistry meterRegistry;
+
+    private Cache<String, TokenBucket> localBuckets;
+    //이 노드에서 trySetRate/expire 를 한 키(만료되면 다시 해서 Redis 키 TTL 연장)
+    private Cache<String, Boolean> initializedLimiters;
+    //거절된 키 -> 다시 시도할 수 있는 시각(ms)
+    private Cache<String, Long> blockedUntil;
+    private Counter redisErrors;
+    //Redis 오류 후 다시 Redis를 시도할 수 있는 시각(ms)
+    private volatile long redisRetryAt;
+
+    @PostConstruct
+    public void init() {
+        localBuckets = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterAccess(properties.getLocalTtlMs(), TimeUnit.MILLISECONDS)
+                .build();
+        initializedLimiters = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterWrite(REDIS_KEY_TTL.dividedBy(2))
+                .build();
+        blockedUntil = Caffeine.newBuilder()
+                .maximumSize(properties.getLocalMaximumSize())
+                .expireAfterWrite(properties.getLocalTtlMs(), TimeUnit.MILLISECONDS)
+                .build();
+        redisErrors = meterRegistry.counter("account.rate_limit.redis.errors");
+    }
+
+    public void acquire(String endpoint, Long userId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        RateLimitProperties.Endpoint config = properties.getEndpoints().get(endpoint);
+        if (config == null) {
+            return;
+        }
+        //사용자별 먼저 -> 한 사용자가 전체 한도를 다 쓰지 못하게
+        if (userId != null && config.getPerUser() != null) {
+            acquire(endpoint, "user", endpoint + ":user:" + userId, config.getPerUser());
+        }
+        if (config.getGlobal() != null) {
+            acquire(endpoint, "global", endpoint + ":global", config.getGlobal());
+        }
+    }
+
+    private void acquire(String endpoint, String scope, String key, Limit limit) {
+        long now = System.currentTimeMillis();
+        Long blocked = blockedUntil.getIfPresent(key);
+        if (blocked != null && blocked > now) {
+            reject(endpoint, scope, blocked - now);
+        }
+
+        boolean useLocal = isLocalMode() || now < redisRetryAt;
+        long retryAfterMs = useLocal ? tryAcquireLocal(key, limit) : tryAcquireRedis(key, limit);
+        if (retryAfterMs > 0) {
+            blockedUntil.put(key, now + retryAfterMs);
+            reject(endpoint, scope, retryAfterMs);
+        }
+    }
+
+    //반환값 : 0 = 통과, 0보다 크면 다시 시도할 수 있을 때까지 남은 시간(ms)
+    private long tryAcquireRedis(String key, Limit limit) {
+        try {
+            RRateLimiter limiter = redissonClient.getRateLimiter(KEY_PREFIX + key);
+            if (initializedLimiters.getIfPresent(key) == null) {
+                //이미 있으면 기존 설정 유지(설정 변경은 키가 만료된 뒤 반영)
+                limiter.trySetRate(RateType.OVERALL, limit.getPermits(), limit.getPeriodMs(),
+                        RateIntervalUnit.MILLISECONDS);
+                limiter.expire(REDIS_KEY_TTL);
+                initializedLimiters.put(key, Boolean.TRUE);
+            }
+            //RRateLimiter는 남은 시간을 주지 않으므로 토큰 1개가 채워지는 시간으로 안내
+            return limiter.tryAcquire() ? 0 : limit.refillIntervalMs();
+        } catch (RedisException e) {
+            redisErrors.increment();
+            redisRetryAt = System.currentTimeMillis() + properties.getRedisBackoffMs();
+            log.warn("Rate limiter unavailable, using local bucket for {} ms. key : {}",
+                    properties.getRedisBackoffMs(), key, e);
+            return tryAcquireLocal(key, limit);
+        }
+    }
+
+    private long tryAcquireLocal(String key, Limit limit) {
+        return localBuckets.get(key, k -> new TokenBucket(limit))
+                .tryAcquire(System.nanoTime());
+    }
+
+    private void reject(String endpoint, String scope, long retryAfterMs) {
+        Counter.builder("account.rate_limit.rejected")
+                .tag("endpoint", endpoint)
+                .tag("scope", scope)
+                .register(meterRegistry)
+                .increment();
+        throw new RateLimitException(retryAfterMs);
+    }
+
+    private boolean isLocalMode() {
+        return "local".equalsIgnoreCase(properties.getMode());
+    }
+
+    //토큰 버킷 : 최대 permits개, periodMs 동안 permits개 비율로 채워짐
+    static final class TokenBucket {
+        private final double capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(Limit limit) {
+            this.capacity = limit.getPermits();
+            this.refillPerNano = (double) limit.getPermits() / TimeUnit.MILLISECONDS.toNanos(limit.getPeriodMs());
+            this.tokens = capacity;
+            this.refilledAt = System.nanoTime();
+        }
+
+        synchronized long tryAcquire(long now) {
+            tokens = Math.min(capacity, tokens + (now - refilledAt) * refillPerNano);
+            refilledAt = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, TimeUnit.NANOSECONDS.toMillis((long) Math.ceil((1 - tokens) / refillPerNano)));
+        }
+    }
+}
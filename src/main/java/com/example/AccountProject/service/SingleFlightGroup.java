@@ -0,0 +1,109 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.exception.AccountException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import static com.example.AccountProject.type.ErrorCode.ACCOUNT_API_BUSY;
+
+/**
+ * 같은 키의 동시 조회 합치기(single flight)
+ * 처음 온 요청(leader)만 실제로 조회하고, 끝나기 전에 같은 키로 온 요청은 leader의 CompletableFuture 결과(예외 포함)를 같이 받음.
+ * -> 인기 사용자 계좌 목록처럼 같은 조회가 몰려도 키당 DB 조회 1번.
+ * 끝난 조회는 바로 지움(결과 캐시가 아님), 진행 중인 키가 maxKeys 이상이면 합치지 않고 바로 조회.
+ * 기다리는 요청은 timeoutMs 까지만 기다리고 ACCOUNT_API_BUSY(leader는 그대로 진행).
+ */
+@Component
+@RequiredArgsConstructor
+public class SingleFlightGroup {
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${account.single-flight.max-keys:10000}")
+    private int maxKeys;
+
+    @Value("${account.single-flight.timeout-ms:3000}")
+    private long timeoutMs;
+
+    private final Map<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private Counter coalesced;
+    private Counter bypassed;
+    private Counter timeouts;
+
+    @PostConstruct
+    public void init() {
+        coalesced = meterRegistry.counter("account.single_flight.coalesced");
+        bypassed = meterRegistry.counter("account.single_flight.bypassed");
+        timeouts = meterRegistry.counter("account.single_flight.timeouts");
+        meterRegistry.gaugeMapSize("account.single_flight.in_flight", Tags.empty(), inFlight);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T execute(String key, Supplier<T> loader) {
+        CompletableFuture<Object> existing = inFlight.get(key);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+        if (inFlight.size() >= maxKeys) {
+            bypassed.increment();
+            return loader.get();
+        }
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            return (T) await(existing);
+        }
+
+        try {
+            T value = loader.get();
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    //leader의 결과를 기다림, leader의 예외는 그대로 다시 던짐
+    private Object await(CompletableFuture<Object> flight) {
+        coalesced.increment();
+        try {
+            return flight.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            timeouts.increment();
+            throw new AccountException(ACCOUNT_API_BUSY);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ACCOUNT_API_BUSY);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    //진행 중인 키 수(모니터링용)
+    public int getInFlightSize() {
+        return inFlight.size();
+    }
+}
@@ -0,0 +1,189 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.aop.AccountLock;
+import com.example.AccountProject.cache.AccountBalanceStore;
+import com.example.AccountProject.cache.UserAccountsCache;
+import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.domain.Transaction;
+import com.example.AccountProject.dto.TransactionDto;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.repository.AccountUserRepository;
+import com.example.AccountProject.repository.TransactionRepository;
+import com.example.AccountProject.type.AccountStatus;
+import com.example.AccountProject.type.TransactionResultType;
+import com.example.AccountProject.type.TransactionType;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+import static com.example.AccountProject.type.ErrorCode.*;
+import static com.example.AccountProject.type.TransactionResultType.F;
+import static com.example.AccountProject.type.TransactionResultType.S;
+import static com.example.AccountProject.type.TransactionType.CANCEL;
+import static com.example.AccountProject.type.TransactionType.USE;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransactionService {
+
+    private final TransactionRepository transactionRepository;
+    private final AccountUserRepository accountUserRepository;
+    private final AccountRepository accountRepository;
+    private final UserAccountsCache userAccountsCache;
+    private final AccountBalanceStore accountBalanceStore;
+
+    /**
+     * 사용자 없는 경우, 계좌가 없는 경우, 사용자 아이디와 계좌 소유주가 다른 경우,
+     * 계좌가 이미 해지 상태인 경우, 거래금액이 잔액보다 큰 경우 실패 응답
+     * 잔액 차감은 조건부 update 한 번 + 거래 원장 insert 한 번으로 처리
+     * 잔액 저장소 사용 시 : 검증 + 차감은 Redis(Lua) 한 번, account 테이블은 write-behind로 나중에 반영
+     */
+    @AccountLock(accountNumber = "#accountNumber")
+    @Transactional
+    public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
+        AccountUser user = accountUserRepository.findById(userId)
+                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        if (accountBalanceStore.isEnabled()) {
+            AccountBalance balance = accountBalanceStore.use(user.getId(), accountNumber, amount);
+            return TransactionDto.fromEntity(saveAndGetTransaction(
+                    USE, S, accountRepository.getReferenceById(balance.getId()), balance.getBalance(), amount, null));
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        validateUseBalance(user, account, amount);
+
+        //조건(사용 중, 잔액 충분)이 맞지 않으면 0 -> 검증 이후 잔액이 바뀐 경우
+        if (accountRepository.useBalance(account.getId(), amount) == 0) {
+            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        }
+        //잔액이 바뀌었으므로 계좌 목록 캐시 무효화
+        userAccountsCache.evictAfterCommit(user.getId());
+
+        return TransactionDto.fromEntity(
+                saveAndGetTransaction(USE, S, account, account.getBalance() - amount, amount, null));
+    }
+
+    private void validateUseBalance(AccountUser user, Account account, Long amount) {
+        if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
+            throw new AccountException(USER_ACCOUNT_UN_MATCH);
+        }
+        if (account.getAccountStatus() != AccountStatus.IN_USE) {
+            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        if (account.getBalance() < amount) {
+            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        }
+    }
+
+    //실패한 거래도 원장에 남김(부하 상황에서 거절 비율 확인용)
+    @Transactional
+    public void saveFailedUseTransaction(String accountNumber, Long amount) {
+        accountRepository.findByAccountNumber(accountNumber)
+                .ifPresent(account -> saveAndGetTransaction(
+                        USE, F, account, account.getBalance(), amount, null));
+    }
+
+    /**
+     * 거래가 없는 경우, 계좌가 없는 경우, 거래와 계좌가 일치하지 않는 경우,
+     * 거래금액과 취소금액이 다른 경우(부분 취소 불가), 1년이 넘은 거래, 이미 취소된 거래는 실패 응답
+     */
+    @AccountLock(accountNumber = "#accountNumber")
+    @Transactional
+    public TransactionDto cancelBalance(String transactionId, String accountNumber, Long amount) {
+        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+        if (accountBalanceStore.isEnabled()) {
+            return cancelBalanceInStore(transaction, accountNumber, amount);
+        }
+        Account account = accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        validateCancelBalance(transaction, account.getId(), amount);
+
+        if (accountRepository.cancelBalance(account.getId(), amount) == 0) {
+            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+        }
+        userAccountsCache.evictAfterCommit(account.getAccountUser().getId());
+
+        return TransactionDto.fromEntity(
+                saveAndGetTransaction(CANCEL, S, account, account.getBalance() + amount, amount, transactionId));
+    }
+
+    //잔액 저장소 사용 시 : 계좌는 저장소에서 확인, 금액 복구는 Redis(Lua) 한 번
+    private TransactionDto cancelBalanceInStore(Transaction transaction, String accountNumber, Long amount) {
+        AccountBalance account = accountBalanceStore.get(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        validateCancelBalance(transaction, account.getId(), amount);
+
+        AccountBalance balance = accountBalanceStore.cancel(accountNumber, amount);
+        return TransactionDto.fromEntity(saveAndGetTransaction(
+                CANCEL, S, accountRepository.getReferenceById(balance.getId()), balance.getBalance(), amount,
+                transaction.getTransactionId()));
+    }
+
+    private void validateCancelBalance(Transaction transaction, Long accountId, Long amount) {
+        if (!Objects.equals(transaction.getAccount().getId(), accountId)) {
+            throw new AccountException(TRANSACTION_ACCOUNT_UN_MATCH);
+        }
+        if (transaction.getTransactionType() != USE || transaction.getTransactionResultType() != S) {
+            throw new AccountException(TRANSACTION_NOT_FOUND);
+        }
+        if (!Objects.equals(transaction.getAmount(), amount)) {
+            throw new AccountException(CANCEL_MUST_FULLY);
+        }
+        if (transaction.getTransactedAt().isBefore(LocalDateTime.now().minusYears(1))) {
+            throw new AccountException(TOO_OLD_ORDER_TO_CANCEL);
+        }
+        if (transactionRepository.existsByCanceledTransactionIdAndTransactionResultType(
+                transaction.getTransactionId(), S)) {
+            throw new AccountException(TRANSACTION_ALREADY_CANCELED);
+        }
+    }
+
+    @Transactional
+    public void saveFailedCancelTransaction(String transactionId, String accountNumber, Long amount) {
+        accountRepository.findByAccountNumber(accountNumber)
+                .ifPresent(account -> saveAndGetTransaction(
+                        CANCEL, F, account, account.getBalance(), amount, transactionId));
+    }
+
+    //거래 확인 API
+    @Transactional(readOnly = true)
+    public TransactionDto queryTransaction(String transactionId) {
+        return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
+                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND)));
+    }
+
+    private Transaction saveAndGetTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long balanceSnapshot,
+            Long amount,
+            String canceledTransactionId
+    ) {
+        return transactionRepository.save(
+                Transaction.builder()
+                        .transactionType(transactionType)
+                        .transactionResultType(transactionResultType)
+                        .account(account)
+                        .amount(amount)
+                        .balanceSnapshot(balanceSnapshot)
+                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                        .canceledTransactionId(canceledTransactionId)
+                        .transactedAt(LocalDateTime.now())
+                        .build()
+        );
+    }
+}
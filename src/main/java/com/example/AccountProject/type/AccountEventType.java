@@ -0,0 +1,5 @@
+package com.example.AccountProject.type;
+
+public enum AccountEventType {
+    CREATED, UNREGISTERED
+}
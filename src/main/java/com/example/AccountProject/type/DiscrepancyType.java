@@ -0,0 +1,7 @@
+package com.example.AccountProject.type;
+
+public enum DiscrepancyType {
+    ACTIVE_ACCOUNT_COUNT_MISMATCH,  //사용자의 activeAccountCount != 실제 사용 중(IN_USE) 계좌 수
+    NEGATIVE_BALANCE,               //잔액이 음수
+    UNREGISTERED_WITH_BALANCE       //해지된 계좌에 잔액이 남아 있음
+}
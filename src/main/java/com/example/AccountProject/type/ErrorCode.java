@@ -2,16 +2,32 @@ package com.example.AccountProject.type;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
+import org.springframework.http.HttpStatus;
 
+//description : 응답 메시지, httpStatus : GlobalExceptionHandler에서 내려주는 응답 상태
 @Getter
 @AllArgsConstructor
 public enum ErrorCode {
-    USER_NOT_FOUND("사용자가 없습니다."),
-    MAX_ACCOUNT_PER_USER_5("사용자 최대 계좌는 5개 입니다"),
-    ACCOUNT_NOT_FOUND("계좌가 없습니다."),
-    USER_ACCOUNT_UN_MATCH("사용자와 계좌의 소유주가 다릅니다."),
-    ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
-    BALANCE_NOT_EMPTY("잔액이 있는 계좌를 해지할 수 없습니다.");
+    INVALID_REQUEST(HttpStatus.BAD_REQUEST, "잘못된 요청입니다."),
+    INTERNAL_SERVER_ERROR(HttpStatus.INTERNAL_SERVER_ERROR, "내부 서버 오류가 발생했습니다."),
+    USER_NOT_FOUND(HttpStatus.NOT_FOUND, "사용자가 없습니다."),
+    MAX_ACCOUNT_PER_USER_5(HttpStatus.CONFLICT, "사용자 최대 계좌는 5개 입니다"),
+    ACCOUNT_NOT_FOUND(HttpStatus.NOT_FOUND, "계좌가 없습니다."),
+    USER_ACCOUNT_UN_MATCH(HttpStatus.BAD_REQUEST, "사용자와 계좌의 소유주가 다릅니다."),
+    ACCOUNT_ALREADY_UNREGISTERED(HttpStatus.CONFLICT, "계좌가 이미 해지되었습니다."),
+    BALANCE_NOT_EMPTY(HttpStatus.CONFLICT, "잔액이 있는 계좌를 해지할 수 없습니다."),
+    ACCOUNT_TRANSACTION_LOCK(HttpStatus.CONFLICT, "해당 계좌는 사용 중입니다."),
+    AMOUNT_EXCEED_BALANCE(HttpStatus.BAD_REQUEST, "거래 금액이 계좌 잔액보다 큽니다."),
+    TRANSACTION_NOT_FOUND(HttpStatus.NOT_FOUND, "해당 거래가 없습니다."),
+    TRANSACTION_ACCOUNT_UN_MATCH(HttpStatus.BAD_REQUEST, "이 거래는 해당 계좌에서 발생한 거래가 아닙니다."),
+    TRANSACTION_ALREADY_CANCELED(HttpStatus.CONFLICT, "이미 취소된 거래입니다."),
+    CANCEL_MUST_FULLY(HttpStatus.BAD_REQUEST, "부분 취소는 허용되지 않습니다."),
+    TOO_OLD_ORDER_TO_CANCEL(HttpStatus.BAD_REQUEST, "1년이 지난 거래는 취소가 불가능합니다."),
+    ACCOUNT_API_BUSY(HttpStatus.SERVICE_UNAVAILABLE, "요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."),
+    IDEMPOTENCY_KEY_REUSED(HttpStatus.UNPROCESSABLE_ENTITY, "같은 Idempotency-Key로 다른 요청을 보낼 수 없습니다."),
+    IDEMPOTENCY_REQUEST_IN_PROGRESS(HttpStatus.CONFLICT, "같은 Idempotency-Key의 요청이 아직 처리 중입니다."),
+    TOO_MANY_REQUESTS(HttpStatus.TOO_MANY_REQUESTS, "요청 한도를 초과했습니다. 잠시 후 다시 시도해 주세요.");
 
+    private final HttpStatus httpStatus;
     private final String description;
 }
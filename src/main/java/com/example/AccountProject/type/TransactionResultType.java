@@ -0,0 +1,6 @@
+package com.example.AccountProject.type;
+
+public enum TransactionResultType {
+    S,  //성공
+    F   //실패
+}
@@ -0,0 +1,6 @@
+package com.example.AccountProject.type;
+
+public enum TransactionType {
+    USE,
+    CANCEL
+}
@@ -1,6 +0,0 @@
-insert into account_user(id, name, created_at, updated_at)
-values (1, '강경구', now(), now());
-insert into account_user(id, name, created_at, updated_at)
-values (2, '홍길동', now(), now());
-insert into account_user(id, name, created_at, updated_at)
-values (3, '김철수', now(), now());
\ No newline at end of file
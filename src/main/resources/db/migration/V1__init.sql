@@ -0,0 +1,52 @@
+-- 엔티티 id 시퀀스
+create sequence hibernate_sequence start with 1 increment by 1;
+create sequence account_seq start with 1 increment by 50;
+
+create table account_user
+(
+    id                   bigint       not null,
+    name                 varchar(255),
+    active_account_count integer      default 0 not null,
+    created_at           timestamp,
+    updated_at           timestamp,
+    primary key (id)
+);
+
+create table account
+(
+    id               bigint not null,
+    account_user_id  bigint,
+    account_number   varchar(255),
+    account_status   varchar(255),
+    balance          bigint,
+    registered_at    timestamp,
+    un_registered_at timestamp,
+    created_at       timestamp,
+    updated_at       timestamp,
+    primary key (id),
+    constraint fk_account_account_user foreign key (account_user_id) references account_user (id)
+);
+
+create unique index ux_account_account_number on account (account_number);
+create index ix_account_user_status on account (account_user_id, account_status);
+
+create table transaction
+(
+    id                      bigint not null,
+    transaction_type        varchar(255),
+    transaction_result_type varchar(255),
+    account_id              bigint,
+    amount                  bigint,
+    balance_snapshot        bigint,
+    transaction_id          varchar(255),
+    canceled_transaction_id varchar(255),
+    transacted_at           timestamp,
+    created_at              timestamp,
+    primary key (id),
+    constraint fk_transaction_account foreign key (account_id) references account (id)
+);
+
+create unique index ux_transaction_transaction_id on transaction (transaction_id);
+create index ix_transaction_account_transacted_at on transaction (account_id, transacted_at);
+create index ix_transaction_result_transacted_at on transaction (transaction_result_type, transacted_at);
+create index ix_transaction_canceled_transaction_id on transaction (canceled_transaction_id);
@@ -0,0 +1,2 @@
+-- 관리자 계좌 목록(GET /accounts?status=&after=) : account_status 조건 + id keyset seek
+create index ix_account_status_id on account (account_status, id);
@@ -0,0 +1,18 @@
+-- 계좌 생성/해지 이벤트 outbox(계좌 변경과 같은 트랜잭션에서 저장, relay가 Redis stream으로 발행)
+create sequence account_event_seq start with 1 increment by 50;
+
+create table account_event
+(
+    id              bigint       not null,
+    event_type      varchar(255) not null,
+    account_id      bigint,
+    account_number  varchar(255) not null,
+    account_user_id bigint       not null,
+    occurred_at     timestamp    not null,
+    sent_at         timestamp,
+    created_at      timestamp,
+    primary key (id)
+);
+
+-- 미발행 이벤트 조회(sent_at is null order by id)
+create index ix_account_event_sent_at_id on account_event (sent_at, id);
@@ -0,0 +1,2 @@
+-- 낙관적 락(@Version) : 엔티티 수정과 조건부 update 모두 version을 올림
+alter table account add column version bigint default 0 not null;
@@ -0,0 +1,55 @@
+-- 잔액/계좌 수 대사(reconciliation)
+-- reconciliation_run : 실행 기록(last_processed_id 까지 처리, 중단되면 이어서 실행)
+-- account_balance_snapshot : id 구간별 사용자/상태 집계(같은 사용자가 여러 구간에 나뉘어 있으면 row도 여러 개 -> 합쳐서 사용)
+-- reconciliation_discrepancy : 불일치 리포트
+create sequence reconciliation_run_seq start with 1 increment by 1;
+create sequence account_balance_snapshot_seq start with 1 increment by 50;
+create sequence reconciliation_discrepancy_seq start with 1 increment by 50;
+
+create table reconciliation_run
+(
+    id                bigint       not null,
+    status            varchar(255) not null,
+    max_account_id    bigint       not null,
+    last_processed_id bigint       not null,
+    processed_count   bigint       not null,
+    total_balance     bigint       not null,
+    discrepancy_count bigint       not null,
+    started_at        timestamp    not null,
+    finished_at       timestamp,
+    updated_at        timestamp,
+    primary key (id)
+);
+
+-- 이어서 할 실행 조회(status = 'RUNNING' order by id desc)
+create index ix_reconciliation_run_status_id on reconciliation_run (status, id);
+
+create table account_balance_snapshot
+(
+    id              bigint       not null,
+    run_id          bigint       not null,
+    to_account_id   bigint       not null,
+    account_user_id bigint       not null,
+    account_status  varchar(255) not null,
+    account_count   bigint       not null,
+    total_balance   bigint       not null,
+    primary key (id)
+);
+
+-- 실행별 사용자 집계(리포트에서 group by account_user_id)
+create index ix_account_balance_snapshot_run_user on account_balance_snapshot (run_id, account_user_id);
+
+create table reconciliation_discrepancy
+(
+    id               bigint       not null,
+    run_id           bigint       not null,
+    discrepancy_type varchar(255) not null,
+    account_user_id  bigint,
+    account_id       bigint,
+    expected         bigint,
+    actual           bigint,
+    created_at       timestamp,
+    primary key (id)
+);
+
+create index ix_reconciliation_discrepancy_run on reconciliation_discrepancy (run_id, id);
@@ -0,0 +1,6 @@
+insert into account_user(id, name, active_account_count, created_at, updated_at)
+values (1, '강경구', 0, now(), now());
+insert into account_user(id, name, active_account_count, created_at, updated_at)
+values (2, '홍길동', 0, now(), now());
+insert into account_user(id, name, active_account_count, created_at, updated_at)
+values (3, '김철수', 0, now(), now());
\ No newline at end of file
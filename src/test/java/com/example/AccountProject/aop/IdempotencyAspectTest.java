@@ -0,0 +1,145 @@
+package com.example.AccountProject.aop;
+
+import com.example.AccountProject.controller.AccountController;
+import com.example.AccountProject.dto.CreateAccount;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.exception.RetryAfterException;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.type.ErrorCode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//embedded redis 위에서 Idempotency-Key 재요청/동시 중복 요청 확인
+@SpringBootTest
+class IdempotencyAspectTest {
+    private static final int THREADS = 10;
+
+    @Autowired
+    private AccountController accountController;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    @DisplayName("같은 키로 다시 요청하면 계좌를 새로 만들지 않고 처음 응답을 그대로 준다")
+    void replayReturnsStoredResponse() {
+        long userId = newUser(2001L);
+        String key = UUID.randomUUID().toString();
+
+        CreateAccount.Response first = createAccount(key, userId, 0L);
+        CreateAccount.Response replay = createAccount(key, userId, 0L);
+
+        assertEquals(first.getAccountNumber(), replay.getAccountNumber());
+        assertEquals(first.getRegisteredAt(), replay.getRegisteredAt());
+        assertEquals(1, accountRepository.findInfoByAccountUserId(userId).size());
+    }
+
+    @Test
+    @DisplayName("같은 키의 동시 요청은 한 번만 실행되고 모두 같은 응답을 받는다")
+    void concurrentDuplicatesAreCoalesced() throws Exception {
+        long userId = newUser(2002L);
+        String key = UUID.randomUUID().toString();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        Set<String> accountNumbers = ConcurrentHashMap.newKeySet();
+        Future<?>[] futures = new Future<?>[THREADS];
+        for (int i = 0; i < THREADS; i++) {
+            futures[i] = executor.submit(() -> {
+                start.await();
+                accountNumbers.add(createAccount(key, userId, 0L).getAccountNumber());
+                return null;
+            });
+        }
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(30, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        assertEquals(1, accountNumbers.size());
+        assertEquals(1, accountRepository.findInfoByAccountUserId(userId).size());
+    }
+
+    @Test
+    @DisplayName("같은 키를 다른 요청 내용에 쓰면 IDEMPOTENCY_KEY_REUSED")
+    void reusedKeyWithDifferentBody() {
+        long userId = newUser(2003L);
+        String key = UUID.randomUUID().toString();
+        createAccount(key, userId, 0L);
+
+        AccountException exception = assertThrows(AccountException.class,
+                () -> createAccount(key, userId, 1000L));
+
+        assertEquals(ErrorCode.IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+        assertEquals(1, accountRepository.findInfoByAccountUserId(userId).size());
+    }
+
+    @Test
+    @DisplayName("다른 노드에서 처리 중인 키는 기다리지 않고 IDEMPOTENCY_REQUEST_IN_PROGRESS + 재시도 시간")
+    void inProgressOnAnotherNode() throws Exception {
+        long userId = newUser(2004L);
+        String key = UUID.randomUUID().toString();
+        //다른 노드가 처리 중 표시를 먼저 선점한 상황
+        String fingerprint = DigestUtils.md5DigestAsHex(objectMapper.writeValueAsBytes(
+                new Object[]{new CreateAccount.Request(userId, 0L)}));
+        redissonClient.getBucket("IDEM:createAccount:" + key, StringCodec.INSTANCE)
+                .set(objectMapper.writeValueAsString(
+                        new IdempotencyAspect.IdempotencyRecord(fingerprint, null)), 30, TimeUnit.SECONDS);
+
+        long started = System.currentTimeMillis();
+        RetryAfterException exception = assertThrows(RetryAfterException.class,
+                () -> createAccount(key, userId, 0L));
+
+        assertEquals(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS, exception.getErrorCode());
+        assertTrue(exception.getRetryAfterMs() > 0);
+        assertTrue(System.currentTimeMillis() - started < 1000);
+        assertEquals(0, accountRepository.findInfoByAccountUserId(userId).size());
+    }
+
+    //Idempotency-Key 헤더가 있는 요청으로 컨트롤러 호출
+    private CreateAccount.Response createAccount(String key, long userId, long initialBalance) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(IdempotencyAspect.HEADER, key);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            return accountController.createAccount(
+                    new CreateAccount.Request(userId, initialBalance)).join();
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+    }
+
+    private long newUser(long userId) {
+        jdbcTemplate.update("merge into account_user(id, name, active_account_count, created_at, updated_at) " +
+                "key(id) values (?, 'idempotency', 0, now(), now())", userId);
+        return userId;
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.AccountProject.cache;
+
+import com.example.AccountProject.domain.AccountInfo;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//embedded redis 위에서 1차/2차 캐시 동작 확인
+@SpringBootTest
+class UserAccountsCacheTest {
+
+    @Autowired
+    private UserAccountsCache userAccountsCache;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Test
+    @DisplayName("두 번째 조회부터는 loader(DB)를 호출하지 않는다")
+    void loadOnlyOnce() {
+        AtomicInteger loads = new AtomicInteger();
+        long userId = 1001L;
+        userAccountsCache.evict(userId);
+
+        for (int i = 0; i < 3; i++) {
+            List<AccountInfo> accounts = userAccountsCache.get(userId, () -> {
+                loads.incrementAndGet();
+                return Collections.singletonList(
+                        new AccountInfo("1000000000", 1000L));
+            });
+            assertEquals("1000000000", accounts.get(0).getAccountNumber());
+        }
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    @DisplayName("무효화 이후에는 다시 loader(DB)에서 읽는다")
+    void reloadAfterEvict() {
+        AtomicInteger loads = new AtomicInteger();
+        long userId = 1002L;
+        userAccountsCache.evict(userId);
+
+        userAccountsCache.get(userId, () -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        });
+        userAccountsCache.evict(userId);
+        userAccountsCache.get(userId, () -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("읽는 도중 무효화되면 읽은 값은 캐시하지 않는다")
+    void skipStalePutAfterEvict() {
+        AtomicInteger loads = new AtomicInteger();
+        long userId = 1003L;
+        userAccountsCache.evict(userId);
+
+        //DB에서 읽은 뒤, 캐시에 저장하기 전에 다른 요청이 커밋하고 무효화한 상황
+        userAccountsCache.get(userId, () -> {
+            loads.incrementAndGet();
+            userAccountsCache.evict(userId);
+            return Collections.emptyList();
+        });
+        userAccountsCache.get(userId, () -> {
+            loads.incrementAndGet();
+            return Collections.emptyList();
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    @DisplayName("무효화 세대 키는 TTL이 있어서 계속 쌓이지 않는다")
+    void generationKeyExpires() {
+        long userId = 1004L;
+
+        userAccountsCache.evict(userId);
+
+        long ttl = redissonClient.getAtomicLong("USER_ACCOUNTS_GENERATION:" + userId).remainTimeToLive();
+        assertTrue(ttl > 0, "generation key has no TTL : " + ttl);
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.AccountProject.config;
+
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.type.ErrorCode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class AccountApiExecutorTest {
+
+    private AccountApiExecutor accountApiExecutor;
+
+    @AfterEach
+    void tearDown() {
+        if (accountApiExecutor != null) {
+            accountApiExecutor.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("sync 모드 - 호출한 스레드에서 바로 실행")
+    void syncMode() {
+        //given
+        accountApiExecutor = newExecutor("sync", 1, 1);
+        String caller = Thread.currentThread().getName();
+        //when
+        CompletableFuture<String> future = accountApiExecutor.submit(() -> Thread.currentThread().getName());
+        //then
+        assertTrue(future.isDone());
+        assertEquals(caller, future.join());
+    }
+
+    @Test
+    @DisplayName("async 모드 - 풀과 큐가 가득 차면 ACCOUNT_API_BUSY 로 바로 거절")
+    void asyncModeRejectsWhenQueueIsFull() throws Exception {
+        //given 스레드 1개 + 큐 1개를 모두 채움
+        accountApiExecutor = newExecutor("async", 1, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> running = accountApiExecutor.submit(() -> await(release));
+        CompletableFuture<String> queued = accountApiExecutor.submit(() -> await(release));
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountApiExecutor.submit(() -> "rejected"));
+        //then
+        assertEquals(ErrorCode.ACCOUNT_API_BUSY, exception.getErrorCode());
+        release.countDown();
+        assertEquals("done", running.get(5, TimeUnit.SECONDS));
+        assertEquals("done", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @SuppressWarnings("unchecked")
+    private AccountApiExecutor newExecutor(String mode, int poolSize, int queueCapacity) {
+        AccountApiExecutor executor = new AccountApiExecutor(mock(ObjectProvider.class));
+        ReflectionTestUtils.setField(executor, "mode", mode);
+        ReflectionTestUtils.setField(executor, "poolSize", poolSize);
+        ReflectionTestUtils.setField(executor, "queueCapacity", queueCapacity);
+        executor.init();
+        return executor;
+    }
+
+    private String await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "done";
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.AccountProject.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+//H2 두 개(primary, replica)로 트랜잭션 readOnly 여부에 따라 커넥션이 나뉘는지 확인
+class ReadWriteRoutingDataSourceTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = h2("routing_primary");
+        DataSource replica = h2("routing_replica");
+        DataSource routing = DataSourceConfiguration.routingDataSource(primary, replica);
+
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Test
+    @DisplayName("readOnly 트랜잭션은 replica로")
+    void readOnlyTransactionUsesReplica() {
+        assertEquals("routing_replica", readOnlyTransaction.execute(status -> currentDatabase()));
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션, 트랜잭션 밖의 쿼리는 primary로")
+    void writeTransactionUsesPrimary() {
+        assertEquals("routing_primary", writeTransaction.execute(status -> currentDatabase()));
+        assertEquals("routing_primary", currentDatabase());
+    }
+
+    private String currentDatabase() {
+        return jdbcTemplate.queryForObject("select name from db_name", String.class);
+    }
+
+    //DB마다 자기 이름을 가진 테이블
+    private static DataSource h2(String name) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table if not exists db_name (name varchar(50))");
+        jdbcTemplate.update("delete from db_name");
+        jdbcTemplate.update("insert into db_name values (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.AccountProject.controller;
+
+import com.example.AccountProject.config.AccountApiExecutor;
+import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.dto.AccountPage;
+import com.example.AccountProject.service.AccountService;
+import com.example.AccountProject.type.AccountStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.Collections;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(AccountAdminController.class)
+@Import(AccountApiExecutor.class)
+class AccountAdminControllerTest {
+
+    @MockBean
+    private AccountService accountService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    //전체 계좌 목록 API(상태, 커서) 성공
+    @Test
+    void successGetAccountPage() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.getAccountPage(eq(AccountStatus.IN_USE), eq(100L), anyInt()))
+                .willReturn(AccountPage.Response.builder()
+                        .accounts(Collections.singletonList(AccountDto.builder()
+                                .userId(2L)
+                                .accountNumber("1234567890")
+                                .accountStatus(AccountStatus.IN_USE)
+                                .balance(1000L).build()))
+                        .build());
+        //then
+        MvcResult mvcResult = mockMvc.perform(get("/accounts?status=IN_USE&after=100"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(mvcResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts[0].userId").value(2))
+                .andExpect(jsonPath("$.accounts[0].accountStatus").value("IN_USE"))
+                .andExpect(jsonPath("$.nextCursor").doesNotExist());
+    }
+
+    //전체 계좌 export API - 한 줄에 계좌 하나(NDJSON)
+    @Test
+    void successExportAccounts() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.exportAccounts(any(), any()))
+                .willAnswer(invocation -> {
+                    Consumer<AccountDto> writer = invocation.getArgument(1);
+                    writer.accept(AccountDto.builder()
+                            .userId(1L)
+                            .accountNumber("1111111111").build());
+                    writer.accept(AccountDto.builder()
+                            .userId(2L)
+                            .accountNumber("2222222222").build());
+                    return 2L;
+                });
+        //then
+        String body = mockMvc.perform(get("/accounts/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"accountNumber\":\"2222222222\""));
+    }
+}
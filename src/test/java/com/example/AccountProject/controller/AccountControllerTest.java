@@ -1,30 +1,52 @@
 package com.example.AccountProject.controller;
 
+import com.example.AccountProject.config.AccountApiExecutor;
+import com.example.AccountProject.domain.AccountInfo;
+import com.example.AccountProject.dto.AccountDetail;
 import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.dto.AccountLookup;
+import com.example.AccountProject.dto.AccountPage;
 import com.example.AccountProject.dto.CreateAccount;
+import com.example.AccountProject.dto.CreateAccountBatch;
 import com.example.AccountProject.dto.DeleteAccount;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.exception.RateLimitException;
+import com.example.AccountProject.exception.RetryAfterException;
 import com.example.AccountProject.service.AccountService;
+import com.example.AccountProject.type.AccountStatus;
+import com.example.AccountProject.type.ErrorCode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountController.class)
+@Import(AccountApiExecutor.class)
 //실제AccountController에 MockBean으로 등록된 가짜 accountService가 주입되어 Test컨테이너에 저장.
 //주입된 어플리케이션 상대로 MockMvc가 요청을 날려서 테스트 진행.
 class AccountControllerTest {
@@ -54,7 +76,7 @@ class AccountControllerTest {
                         .build());
         //when 어떤 동작을 하게 되면
         //then 어떤 결과가 나와야한다
-        mockMvc.perform(post("/account")
+        performAsync(post("/account")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
                                 new CreateAccount.Request(1L, 100L)
@@ -66,6 +88,92 @@ class AccountControllerTest {
                 .andDo(print());
     }
 
+    //일괄 계좌 생성 API 성공(항목별 결과)
+    @Test
+    void successCreateAccounts() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.createAccounts(any()))
+                .willReturn(Arrays.asList(
+                        CreateAccountBatch.Result.success(AccountDto.builder()
+                                .userId(1L)
+                                .accountNumber("1000000000")
+                                .registeredAt(LocalDateTime.now())
+                                .build()),
+                        CreateAccountBatch.Result.fail(2L, ErrorCode.USER_NOT_FOUND)));
+        //then 어떤 결과가 나와야한다
+        performAsync(post("/accounts/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateAccountBatch.Request(Arrays.asList(
+                                        new CreateAccount.Request(1L, 100L),
+                                        new CreateAccount.Request(2L, 100L)))
+                        )))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].userId").value(1))
+                .andExpect(jsonPath("$[0].accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$[1].userId").value(2))
+                .andExpect(jsonPath("$[1].errorCode").value("USER_NOT_FOUND"))
+                .andDo(print());
+    }
+
+    //계좌 조회 API 성공 - 엔티티가 아닌 AccountDetail(사용자 정보, 감사 필드 없음)
+    @Test
+    void successGetAccount() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.getAccount(anyLong()))
+                .willReturn(new AccountDetail(1L, 12L, "1000000000", AccountStatus.IN_USE, 1000L,
+                        LocalDateTime.now(), null));
+        //then 어떤 결과가 나와야한다
+        performAsync(get("/account/1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userId").value(12))
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.accountStatus").value("IN_USE"))
+                .andExpect(jsonPath("$.balance").value(1000))
+                .andExpect(jsonPath("$.accountUser").doesNotExist())
+                .andExpect(jsonPath("$.unRegisteredAt").doesNotExist())
+                .andDo(print());
+    }
+
+    //여러 계좌 잔액 조회 API 성공 - 요청 순서대로, 없는 계좌는 found = false
+    @Test
+    void successLookupAccounts() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.lookupAccounts(any()))
+                .willReturn(Arrays.asList(
+                        AccountLookup.Response.found(new AccountInfo("1000000000", 1000L)),
+                        AccountLookup.Response.notFound("9999999999")));
+        //then 어떤 결과가 나와야한다
+        performAsync(post("/accounts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new AccountLookup.Request(Arrays.asList("1000000000", "9999999999"))
+                        )))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$[0].found").value(true))
+                .andExpect(jsonPath("$[0].balance").value(1000))
+                .andExpect(jsonPath("$[1].accountNumber").value("9999999999"))
+                .andExpect(jsonPath("$[1].found").value(false))
+                .andDo(print());
+    }
+
+    //여러 계좌 잔액 조회 API 실패 - 최대 개수 초과
+    @Test
+    void failLookupAccountsTooMany() throws Exception {
+        List<String> accountNumbers = new ArrayList<>();
+        for (int i = 0; i <= AccountLookup.MAX_ACCOUNT_NUMBERS; i++) {
+            accountNumbers.add(String.valueOf(1_000_000_000L + i));
+        }
+        //then 어떤 결과가 나와야한다
+        mockMvc.perform(post("/accounts/lookup")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AccountLookup.Request(accountNumbers))))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+
     //계좌 해지 API(파라미터 : 사용자 ID, 계좌번호) 성공
     @Test
     void successDeleteAccount() throws Exception {
@@ -78,7 +186,7 @@ class AccountControllerTest {
                         .unRegisteredAt(LocalDateTime.now())
                         .build());
         //then 어떤 결과가 나와야한다
-        mockMvc.perform(delete("/account")
+        performAsync(delete("/account")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(
                                 new DeleteAccount.Request(3333L, "0987654321")
@@ -94,22 +202,22 @@ class AccountControllerTest {
     @Test
     void successGetAccountsByUserId() throws Exception {
         //given 어떤 데이터가 있을 때,
-        List<AccountDto> accountDtos =
+        List<AccountInfo> accountInfos =
                 Arrays.asList(
-                        AccountDto.builder()
+                        AccountInfo.builder()
                                 .accountNumber("1234567890")
                                 .balance(1000L).build(),
-                        AccountDto.builder()
+                        AccountInfo.builder()
                                 .accountNumber("1111111111")
                                 .balance(2000L).build(),
-                        AccountDto.builder()
+                        AccountInfo.builder()
                                 .accountNumber("2222222222")
                                 .balance(3000L).build()
                 );
-        given(accountService.getAccountsByUserId(anyLong()))
-                .willReturn(accountDtos);
+        given(accountService.getAccountInfosByUserId(anyLong()))
+                .willReturn(accountInfos);
         //then
-        mockMvc.perform(get("/account?user_id=1"))
+        performAsync(get("/account?user_id=1"))
                 .andDo(print())
                 .andExpect(jsonPath("$[0].accountNumber").value("1234567890"))
                 .andExpect(jsonPath("$[0].balance").value("1000"))
@@ -118,5 +226,109 @@ class AccountControllerTest {
                 .andExpect(jsonPath("$[2].accountNumber").value("2222222222"))
                 .andExpect(jsonPath("$[2].balance").value("3000"));
     }
-}
 
+    //계좌 목록 API(keyset 페이지) 성공
+    @Test
+    void successGetAccountPageByUserId() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.getAccountPageByUserId(anyLong(), any(), anyInt()))
+                .willReturn(AccountPage.Response.builder()
+                        .accounts(Arrays.asList(
+                                AccountDto.builder()
+                                        .userId(1L)
+                                        .accountNumber("1234567890")
+                                        .balance(1000L).build(),
+                                AccountDto.builder()
+                                        .userId(1L)
+                                        .accountNumber("1111111111")
+                                        .balance(2000L).build()))
+                        .nextCursor(15L)
+                        .build());
+        //then
+        performAsync(get("/account?user_id=1&after=10&limit=2"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accounts[0].accountNumber").value("1234567890"))
+                .andExpect(jsonPath("$.accounts[1].balance").value(2000))
+                .andExpect(jsonPath("$.nextCursor").value(15));
+        verify(accountService).getAccountPageByUserId(1L, 10L, 2);
+    }
+
+    //계좌 생성 API 실패 - ErrorCode의 상태와 메시지로 응답
+    @Test
+    void failCreateAccount() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.createAccount(anyLong(), anyLong()))
+                .willThrow(new AccountException(ErrorCode.MAX_ACCOUNT_PER_USER_5));
+        //then 어떤 결과가 나와야한다
+        mockMvc.perform(post("/account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateAccount.Request(1L, 100L)
+                        )))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.errorCode").value("MAX_ACCOUNT_PER_USER_5"))
+                .andExpect(jsonPath("$.errorMessage").value(ErrorCode.MAX_ACCOUNT_PER_USER_5.getDescription()));
+    }
+
+    //같은 Idempotency-Key가 다른 노드에서 처리 중 - 409 + Retry-After(초), body에 retryAfterMs
+    @Test
+    void failCreateAccountRequestInProgress() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.createAccount(anyLong(), anyLong()))
+                .willThrow(new RetryAfterException(ErrorCode.IDEMPOTENCY_REQUEST_IN_PROGRESS, 1500L));
+        //then 어떤 결과가 나와야한다
+        mockMvc.perform(post("/account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateAccount.Request(1L, 100L)
+                        )))
+                .andDo(print())
+                .andExpect(status().isConflict())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.errorCode").value("IDEMPOTENCY_REQUEST_IN_PROGRESS"))
+                .andExpect(jsonPath("$.retryAfterMs").value(1500));
+    }
+
+    //요청 한도 초과 - 429 + Retry-After(초), body에 retryAfterMs
+    @Test
+    void failCreateAccountTooManyRequests() throws Exception {
+        //given 어떤 데이터가 있을 때,
+        given(accountService.createAccount(anyLong(), anyLong()))
+                .willThrow(new RateLimitException(1500L));
+        //then 어떤 결과가 나와야한다
+        mockMvc.perform(post("/account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateAccount.Request(1L, 100L)
+                        )))
+                .andDo(print())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "2"))
+                .andExpect(jsonPath("$.errorCode").value("TOO_MANY_REQUESTS"))
+                .andExpect(jsonPath("$.retryAfterMs").value(1500));
+    }
+
+    //계좌 생성 API 실패 - 요청 값 검증(userId는 1 이상)
+    @Test
+    void failCreateAccountInvalidRequest() throws Exception {
+        //then 어떤 결과가 나와야한다
+        mockMvc.perform(post("/account")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new CreateAccount.Request(0L, 100L)
+                        )))
+                .andDo(print())
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.errorCode").value("INVALID_REQUEST"));
+    }
+
+    //API가 CompletableFuture를 반환하므로 async dispatch 이후의 응답을 검증
+    private ResultActions performAsync(MockHttpServletRequestBuilder builder) throws Exception {
+        MvcResult mvcResult = mockMvc.perform(builder)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(mvcResult));
+    }
+}
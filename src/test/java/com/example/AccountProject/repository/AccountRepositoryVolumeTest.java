@@ -0,0 +1,84 @@
+package com.example.AccountProject.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.LongConsumer;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 계좌 100만 건을 넣고 나서도 인덱스 조회 시간이 거의 그대로인지 확인
+ * 일반 test 에서는 제외, ./gradlew volumeTest 로 별도 JVM에서 실행
+ */
+@Tag("volume")
+@SpringBootTest
+class AccountRepositoryVolumeTest {
+    private static final long SMALL_ROWS = 10_000L;
+    private static final long LARGE_ROWS = 1_000_000L;
+    private static final long ID_OFFSET = 100_000_000L;
+    private static final long NUMBER_OFFSET = 9_000_000_000L;
+    private static final int LOOKUPS = 2_000;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("계좌 수가 100배가 되어도 계좌번호/사용자별 조회 시간은 거의 그대로")
+    void lookupLatencyStaysFlat() {
+        seed(1, SMALL_ROWS);
+        double smallByNumber = averageNanos(SMALL_ROWS, this::findByAccountNumber);
+        double smallByUser = averageNanos(SMALL_ROWS, this::findInfoByAccountUserId);
+
+        seed(SMALL_ROWS + 1, LARGE_ROWS);
+        double largeByNumber = averageNanos(LARGE_ROWS, this::findByAccountNumber);
+        double largeByUser = averageNanos(LARGE_ROWS, this::findInfoByAccountUserId);
+
+        System.out.printf("findByAccountNumber %,.0fns -> %,.0fns, findInfoByAccountUserId %,.0fns -> %,.0fns%n",
+                smallByNumber, largeByNumber, smallByUser, largeByUser);
+
+        //풀스캔이면 100배 가까이 느려짐, 인덱스를 타면 트리 깊이만큼만 늘어남
+        assertTrue(largeByNumber < Math.max(smallByNumber * 5, 2_000_000));
+        assertTrue(largeByUser < Math.max(smallByUser * 5, 2_000_000));
+    }
+
+    //사용자 1명당 계좌 5개씩(account_user 는 id 기준으로 새로 추가)
+    private void seed(long from, long to) {
+        jdbcTemplate.update("insert into account_user(id, name, active_account_count, created_at, updated_at) " +
+                "select ? + x, 'volume', 5, now(), now() from system_range(?, ?)",
+                ID_OFFSET, (from + 4) / 5, to / 5);
+        jdbcTemplate.update("insert into account(id, account_user_id, account_number, account_status, balance, " +
+                "registered_at, created_at, updated_at) " +
+                "select ? + x, ? + (x + 4) / 5, cast(? + x as varchar), 'IN_USE', 1000, now(), now(), now() " +
+                "from system_range(?, ?)",
+                ID_OFFSET, ID_OFFSET, NUMBER_OFFSET, from, to);
+    }
+
+    private double averageNanos(long rows, LongConsumer lookup) {
+        //워밍업
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup.accept(ThreadLocalRandom.current().nextLong(1, rows + 1));
+        }
+        long started = System.nanoTime();
+        for (int i = 0; i < LOOKUPS; i++) {
+            lookup.accept(ThreadLocalRandom.current().nextLong(1, rows + 1));
+        }
+        return (System.nanoTime() - started) / (double) LOOKUPS;
+    }
+
+    private void findByAccountNumber(long x) {
+        assertTrue(accountRepository.findByAccountNumber(String.valueOf(NUMBER_OFFSET + x)).isPresent());
+    }
+
+    private void findInfoByAccountUserId(long x) {
+        assertTrue(!accountRepository.findInfoByAccountUserId(ID_OFFSET + (x + 4) / 5).isEmpty());
+    }
+}
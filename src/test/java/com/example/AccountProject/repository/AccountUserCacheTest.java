@@ -0,0 +1,74 @@
+package com.example.AccountProject.repository;
+
+import com.example.AccountProject.domain.AccountUser;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//AccountUser 2차 캐시 : 두 번째 조회부터 DB 조회 없음, 계좌 수가 바뀌면 해당 사용자만 제거
+@SpringBootTest
+class AccountUserCacheTest {
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("같은 사용자를 다시 조회하면 2차 캐시에서 가져온다")
+    void findByIdHitsSecondLevelCache() {
+        long userId = newUser(3001L);
+        CacheRegionStatistics statistics = regionStatistics();
+        long hits = statistics.getHitCount();
+
+        accountUserRepository.findById(userId);
+        accountUserRepository.findById(userId);
+
+        assertTrue(entityManagerFactory.getCache().contains(AccountUser.class, userId));
+        assertTrue(statistics.getHitCount() > hits);
+    }
+
+    @Test
+    @DisplayName("계좌 수 변경은 해당 사용자만 캐시에서 제거한다")
+    void counterUpdateEvictsOnlyThatUser() {
+        long userId = newUser(3002L);
+        long otherUserId = newUser(3003L);
+        accountUserRepository.findById(userId);
+        accountUserRepository.findById(otherUserId);
+
+        transactionTemplate.executeWithoutResult(status ->
+                assertEquals(1, accountUserRepository.increaseActiveAccountCount(userId, 1, 5)));
+
+        assertFalse(entityManagerFactory.getCache().contains(AccountUser.class, userId));
+        assertTrue(entityManagerFactory.getCache().contains(AccountUser.class, otherUserId));
+        assertEquals(1, accountUserRepository.findById(userId).get().getActiveAccountCount());
+    }
+
+    private CacheRegionStatistics regionStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics()
+                .getDomainDataRegionStatistics(AccountUser.CACHE_REGION);
+    }
+
+    private long newUser(long userId) {
+        jdbcTemplate.update("merge into account_user(id, name, active_account_count, created_at, updated_at) " +
+                "key(id) values (?, 'cache', 0, now(), now())", userId);
+        entityManagerFactory.getCache().evict(AccountUser.class, userId);
+        return userId;
+    }
+}
@@ -0,0 +1,250 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.cache.AccountBalanceStore;
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.type.AccountStatus;
+import com.example.AccountProject.type.ErrorCode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+//embedded redis 위에서 잔액 저장소(Lua) 변경 -> write-behind 큐 -> DB 반영 확인
+//저장소 기능 플래그는 꺼져 있으므로(스케줄 반영 안 함) 저장소/반영 메소드를 직접 호출
+@SpringBootTest
+class AccountBalanceFlusherTest {
+    //이 테스트에서만 사용하는 사용자
+    private static final long USER_ID = 6001L;
+
+    @Autowired
+    private AccountBalanceStore accountBalanceStore;
+
+    @Autowired
+    private AccountBalanceFlusher accountBalanceFlusher;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String accountNumber;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("merge into account_user(id, name, active_account_count, created_at, updated_at) " +
+                "key(id) values (?, 'balance-store', 0, now(), now())", USER_ID);
+        accountNumber = accountService.createAccount(USER_ID, 1000L).getAccountNumber();
+        //이전 테스트가 남긴 큐 비우기
+        accountBalanceStore.pollWriteBehind(Integer.MAX_VALUE);
+        accountBalanceStore.ackWriteBehind();
+    }
+
+    @Test
+    @DisplayName("잔액 변경은 Redis에 바로 반영되고, DB에는 write-behind 반영 이후에 반영된다")
+    void writesBehind() {
+        // when: 어떤 동작을 하게 되면
+        AccountBalance used = accountBalanceStore.use(USER_ID, accountNumber, 300L);
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(700L, used.getBalance());
+        assertEquals(700L, accountBalanceStore.get(accountNumber).get().getBalance());
+        assertEquals(1000L, balanceInDb());
+
+        assertEquals(1, accountBalanceFlusher.writeBatch(accountBalanceStore.pollWriteBehind(100)));
+        assertEquals(700L, balanceInDb());
+        assertEquals(used.getVersion(), versionInDb());
+        assertEquals(0L, accountBalanceStore.getWriteBehindSize());
+    }
+
+    @Test
+    @DisplayName("Lua 검증에 실패하면 저장소와 큐는 바뀌지 않는다")
+    void rejectsInvalidMutation() {
+        // when: 어떤 동작을 하게 되면
+        AccountException exceed = assertThrows(AccountException.class,
+                () -> accountBalanceStore.use(USER_ID, accountNumber, 1001L));
+        AccountException unMatch = assertThrows(AccountException.class,
+                () -> accountBalanceStore.use(USER_ID + 1, accountNumber, 1L));
+        AccountException notEmpty = assertThrows(AccountException.class,
+                () -> accountBalanceStore.unregister(USER_ID, accountNumber, LocalDateTime.now()));
+        AccountException notFound = assertThrows(AccountException.class,
+                () -> accountBalanceStore.use(USER_ID, "9999999999", 1L));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exceed.getErrorCode());
+        assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, unMatch.getErrorCode());
+        assertEquals(ErrorCode.BALANCE_NOT_EMPTY, notEmpty.getErrorCode());
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, notFound.getErrorCode());
+        assertEquals(1000L, accountBalanceStore.get(accountNumber).get().getBalance());
+        assertEquals(0L, accountBalanceStore.getWriteBehindSize());
+    }
+
+    @Test
+    @DisplayName("해지 후 반영하면 DB 상태, 해지 일시가 저장소와 같아진다")
+    void flushesUnregister() {
+        // given: 어떤 데이터가 있을 때
+        accountBalanceStore.use(USER_ID, accountNumber, 1000L);
+        LocalDateTime unRegisteredAt = LocalDateTime.now();
+
+        // when: 어떤 동작을 하게 되면
+        AccountBalance unregistered = accountBalanceStore.unregister(USER_ID, accountNumber, unRegisteredAt);
+        accountBalanceFlusher.writeBatch(accountBalanceStore.pollWriteBehind(100));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(AccountStatus.UNREGISTERED, unregistered.getAccountStatus());
+        assertEquals(unRegisteredAt, unregistered.getUnRegisteredAt());
+        Map<String, Object> row = jdbcTemplate.queryForMap(
+                "select account_status, balance, un_registered_at from account where account_number = ?",
+                accountNumber);
+        assertEquals("UNREGISTERED", row.get("ACCOUNT_STATUS"));
+        assertEquals(0L, ((Number) row.get("BALANCE")).longValue());
+        assertNotNull(row.get("UN_REGISTERED_AT"));
+    }
+
+    @Test
+    @DisplayName("큐에서 꺼낸 뒤 반영 전에 멈추면 처리 중 목록에 남고, 다음 반영에서 복구된다")
+    void recoversProcessingEntries() {
+        // given: 큐에서 꺼냈지만 DB에 반영하지 못한 상태(노드 중단)
+        accountBalanceStore.use(USER_ID, accountNumber, 100L);
+        accountBalanceStore.use(USER_ID, accountNumber, 100L);
+        accountBalanceStore.pollWriteBehind(100);
+
+        // when: 어떤 동작을 하게 되면
+        List<AccountBalance> pending = accountBalanceStore.pendingWriteBehind();
+        int recovered = accountBalanceFlusher.writeBatch(pending);
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(2, recovered);
+        assertEquals(800L, balanceInDb());
+        assertEquals(0L, accountBalanceStore.getWriteBehindSize());
+
+        //같은 항목을 다시 반영해도(version 조건) 결과는 같음
+        accountBalanceFlusher.writeBatch(pending);
+        assertEquals(800L, balanceInDb());
+    }
+
+    @Test
+    @DisplayName("트랜잭션이 롤백되면 저장소 변경도 되돌리고, DB에는 되돌린 상태가 반영된다")
+    void restoresOnRollback() {
+        // when: 어떤 동작을 하게 되면
+        transactionTemplate.executeWithoutResult(status -> {
+            accountBalanceStore.use(USER_ID, accountNumber, 300L);
+            status.setRollbackOnly();
+        });
+        accountBalanceFlusher.writeBatch(accountBalanceStore.pollWriteBehind(100));
+
+        // then: 어떤 결과가 나와야 함
+        AccountBalance restored = accountBalanceStore.get(accountNumber).get();
+        assertEquals(1000L, restored.getBalance());
+        assertEquals(1000L, balanceInDb());
+        assertEquals(restored.getVersion(), versionInDb());
+    }
+
+    @Test
+    @DisplayName("트랜잭션 안의 변경은 커밋된 뒤에 write-behind 큐에 들어간다")
+    void enqueuesAfterCommit() {
+        // when: 어떤 동작을 하게 되면
+        transactionTemplate.executeWithoutResult(status -> {
+            accountBalanceStore.use(USER_ID, accountNumber, 300L);
+            //커밋 전 : 저장소만 바뀌고 큐는 비어 있음
+            assertEquals(0L, accountBalanceStore.getWriteBehindSize());
+        });
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(1L, accountBalanceStore.getWriteBehindSize());
+        accountBalanceFlusher.writeBatch(accountBalanceStore.pollWriteBehind(100));
+        assertEquals(700L, balanceInDb());
+    }
+
+    @Test
+    @DisplayName("롤백 전에 다른 변경이 커밋돼도, 롤백된 변경량만 되돌리고 DB도 맞춰진다")
+    void restoresDeltaAfterInterleavedChange() {
+        // when: 어떤 동작을 하게 되면
+        transactionTemplate.executeWithoutResult(status -> {
+            accountBalanceStore.use(USER_ID, accountNumber, 300L);
+            //롤백되기 전에 다른 요청(다른 스레드, 트랜잭션 없음)의 변경(700 -> 600)이 먼저 DB까지 반영됨
+            CompletableFuture.runAsync(() -> {
+                accountBalanceStore.use(USER_ID, accountNumber, 100L);
+                accountBalanceFlusher.writeBatch(accountBalanceStore.pollWriteBehind(100));
+            }).join();
+            assertEquals(600L, balanceInDb());
+            status.setRollbackOnly();
+        });
+        accountBalanceFlusher.writeBatch(accountBalanceStore.pollWriteBehind(100));
+
+        // then: 어떤 결과가 나와야 함
+        AccountBalance restored = accountBalanceStore.get(accountNumber).get();
+        assertEquals(900L, restored.getBalance());
+        assertEquals(900L, balanceInDb());
+        assertEquals(restored.getVersion(), versionInDb());
+    }
+
+    @Test
+    @DisplayName("여러 계좌 조회 시 저장소에 없는 계좌만 DB에서 올리고, DB에도 없는 계좌는 결과에 없다")
+    void loadsMissingAccounts() {
+        // given: 어떤 데이터가 있을 때
+        AccountDto other = accountService.createAccount(USER_ID, 500L);
+        accountBalanceStore.get(accountNumber);
+
+        // when: 어떤 동작을 하게 되면
+        Map<String, AccountBalance> balances = accountBalanceStore.getAll(
+                Arrays.asList(accountNumber, other.getAccountNumber(), "9999999999"));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(2, balances.size());
+        assertEquals(1000L, balances.get(accountNumber).getBalance());
+        assertEquals(500L, balances.get(other.getAccountNumber()).getBalance());
+        assertEquals(USER_ID, balances.get(other.getAccountNumber()).getAccountUserId());
+    }
+
+    @Test
+    @DisplayName("id로 조회 시 처음에만 DB에서 올리고, 이후에는 DB를 읽지 않는다")
+    void loadsByIdOnlyOnce() {
+        // given: 어떤 데이터가 있을 때
+        AccountDto other = accountService.createAccount(USER_ID, 500L);
+        Long id = jdbcTemplate.queryForObject(
+                "select id from account where account_number = ?", Long.class, other.getAccountNumber());
+
+        // when: 어떤 동작을 하게 되면
+        AccountBalance loaded = accountBalanceStore.getById(id).orElseThrow();
+        //DB만 바뀐 상황 -> 저장소에 있으면 DB 값은 읽지 않음
+        jdbcTemplate.update("update account set balance = 0 where id = ?", id);
+        AccountBalance cached = accountBalanceStore.getById(id).orElseThrow();
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(other.getAccountNumber(), loaded.getAccountNumber());
+        assertEquals(jdbcTemplate.queryForObject("select registered_at from account where id = ?",
+                LocalDateTime.class, id), loaded.getRegisteredAt());
+        assertEquals(500L, cached.getBalance());
+        assertFalse(accountBalanceStore.getById(Long.MAX_VALUE).isPresent());
+    }
+
+    private long balanceInDb() {
+        return jdbcTemplate.queryForObject(
+                "select balance from account where account_number = ?", Long.class, accountNumber);
+    }
+
+    private Long versionInDb() {
+        return jdbcTemplate.queryForObject(
+                "select version from account where account_number = ?", Long.class, accountNumber);
+    }
+}
@@ -0,0 +1,118 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.domain.AccountEvent;
+import com.example.AccountProject.repository.AccountEventRepository;
+import com.example.AccountProject.type.AccountEventType;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.redisnode.RedisNode;
+import org.redisson.api.redisnode.RedisNodes;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//outbox -> Redis stream 발행(Redis 5 이상에서만), 보존 기간 지난 이벤트 삭제 확인
+@SpringBootTest
+class AccountEventRelayTest {
+
+    @Autowired
+    private AccountEventRepository accountEventRepository;
+
+    @Autowired
+    private AccountEventRelay accountEventRelay;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Value("${account.outbox.stream}")
+    private String streamName;
+
+    @Test
+    @DisplayName("저장된 이벤트는 stream에 발행되고 sentAt이 기록된다")
+    void relayPublishesAndMarksSent() throws InterruptedException {
+        //stream(XADD)은 Redis 5부터 지원 -> embedded redis 바이너리(2.8)에서는 건너뜀
+        String redisVersion = redissonClient.getRedisNodes(RedisNodes.SINGLE).getInstance()
+                .info(RedisNode.InfoSection.SERVER).get("redis_version");
+        Assumptions.assumeTrue(Integer.parseInt(redisVersion.split("\\.")[0]) >= 5,
+                "Redis stream is not supported by " + redisVersion);
+        //기본 설정은 발행 꺼짐(relay-enabled: false) -> 이 테스트에서만 켬
+        ReflectionTestUtils.setField(accountEventRelay, "relayEnabled", true);
+        try {
+            relayAndAssertPublished();
+        } finally {
+            ReflectionTestUtils.setField(accountEventRelay, "relayEnabled", false);
+        }
+    }
+
+    private void relayAndAssertPublished() throws InterruptedException {
+
+        AccountEvent saved = accountEventRepository.save(AccountEvent.builder()
+                .eventType(AccountEventType.CREATED)
+                .accountNumber("9999999999")
+                .accountUserId(1L)
+                .occurredAt(LocalDateTime.now())
+                .build());
+
+        //스케줄러가 먼저 발행했을 수도 있으므로 직접 실행 후 sentAt이 기록될 때까지 대기
+        long deadline = System.currentTimeMillis() + 5000;
+        AccountEvent relayed = accountEventRepository.findById(saved.getId()).get();
+        while (relayed.getSentAt() == null && System.currentTimeMillis() < deadline) {
+            accountEventRelay.relay();
+            Thread.sleep(50);
+            relayed = accountEventRepository.findById(saved.getId()).get();
+        }
+        assertNotNull(relayed.getSentAt());
+
+        RStream<String, String> stream = redissonClient.getStream(streamName, StringCodec.INSTANCE);
+        Map<String, String> published = stream.range(StreamMessageId.MIN, StreamMessageId.MAX)
+                .values()
+                .stream()
+                .filter(entries -> String.valueOf(saved.getId()).equals(entries.get("eventId")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("CREATED", published.get("eventType"));
+        assertEquals("9999999999", published.get("accountNumber"));
+    }
+
+    @Test
+    @DisplayName("보존 기간이 지난 이벤트는 삭제되고, 최근 이벤트는 남는다")
+    void purgeExpiredEvents() {
+        LocalDateTime old = LocalDateTime.now().minusDays(8);
+        AccountEvent oldSent = saveEvent(old, old);
+        AccountEvent oldUnsent = saveEvent(old, null);
+        AccountEvent recentSent = saveEvent(LocalDateTime.now(), LocalDateTime.now());
+        AccountEvent recentUnsent = saveEvent(LocalDateTime.now(), null);
+
+        accountEventRelay.purge();
+
+        assertFalse(accountEventRepository.existsById(oldSent.getId()));
+        //발행이 꺼져 있으면 미발행 이벤트도 보존 기간이 지나면 삭제
+        assertFalse(accountEventRepository.existsById(oldUnsent.getId()));
+        assertTrue(accountEventRepository.existsById(recentSent.getId()));
+        assertTrue(accountEventRepository.existsById(recentUnsent.getId()));
+    }
+
+    private AccountEvent saveEvent(LocalDateTime occurredAt, LocalDateTime sentAt) {
+        return accountEventRepository.save(AccountEvent.builder()
+                .eventType(AccountEventType.CREATED)
+                .accountNumber("9999999998")
+                .accountUserId(1L)
+                .occurredAt(occurredAt)
+                .sentAt(sentAt)
+                .build());
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.repository.AccountRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.redisson.api.RAtomicLong;
+import org.redisson.api.RedissonClient;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class AccountNumberGeneratorTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private RAtomicLong counter;
+
+    @InjectMocks
+    private AccountNumberGenerator accountNumberGenerator;
+
+    //Redis 카운터 대신 사용하는 값
+    private final AtomicLong redisValue = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(accountNumberGenerator, "blockSize", 10L);
+        given(redissonClient.getAtomicLong(anyString())).willReturn(counter);
+        given(counter.isExists()).willAnswer(invocation -> redisValue.get() != 0);
+        given(counter.compareAndSet(anyLong(), anyLong())).willAnswer(invocation ->
+                redisValue.compareAndSet(invocation.<Long>getArgument(0), invocation.<Long>getArgument(1)));
+        given(counter.addAndGet(anyLong())).willAnswer(invocation ->
+                redisValue.addAndGet(invocation.<Long>getArgument(0)));
+    }
+
+    @Test
+    @DisplayName("계좌가 없으면 최초 계좌번호부터 발급")
+    void firstAccountNumber() {
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.empty());
+
+        assertEquals("1000000000", accountNumberGenerator.next());
+        assertEquals("1000000001", accountNumberGenerator.next());
+        assertEquals(8, accountNumberGenerator.getRemaining());
+    }
+
+    @Test
+    @DisplayName("기존 계좌가 있으면 마지막 계좌번호 다음부터 발급")
+    void continueFromLastAccountNumber() {
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000012").build()));
+
+        assertEquals("1000000013", accountNumberGenerator.next());
+    }
+
+    @Test
+    @DisplayName("구간을 다 쓰면 Redis에서 다음 구간을 예약")
+    void reserveNextBlock() {
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.empty());
+
+        for (int i = 0; i < 25; i++) {
+            assertEquals(String.valueOf(1000000000L + i), accountNumberGenerator.next());
+        }
+        //10개씩 3번 예약
+        verify(counter, times(3)).addAndGet(10L);
+    }
+
+    @Test
+    @DisplayName("여러 스레드가 동시에 발급해도 중복 번호 없음")
+    void noDuplicateUnderConcurrency() throws InterruptedException {
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.empty());
+        int threads = 32;
+        int perThread = 500;
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch latch = new CountDownLatch(threads);
+
+        for (int i = 0; i < threads; i++) {
+            executor.submit(() -> {
+                try {
+                    for (int j = 0; j < perThread; j++) {
+                        issued.add(accountNumberGenerator.next());
+                    }
+                } finally {
+                    latch.countDown();
+                }
+            });
+        }
+        latch.await(10, TimeUnit.SECONDS);
+        executor.shutdown();
+
+        assertEquals(threads * perThread, issued.size());
+    }
+
+    @Test
+    @DisplayName("Redis 카운터가 사라지면 DB의 마지막 계좌번호 다음부터 다시 예약")
+    void reseedAfterCounterReset() {
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.empty());
+        for (int i = 0; i < 10; i++) {
+            accountNumberGenerator.next();
+        }
+        //Redis flush, failover
+        redisValue.set(0);
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.of(Account.builder()
+                        .accountNumber("1000000009").build()));
+
+        assertEquals("1000000010", accountNumberGenerator.next());
+    }
+
+    @Test
+    @DisplayName("확인한 뒤 카운터가 사라져도 0부터 받은 구간은 쓰지 않음")
+    void discardBlockReservedFromResetCounter() {
+        given(accountRepository.findFirstByOrderByIdDesc())
+                .willReturn(Optional.empty());
+        //isExists 확인 후 예약 전에 카운터가 사라진 상황
+        given(counter.isExists()).willReturn(true);
+        redisValue.set(0);
+
+        assertEquals("1000000000", accountNumberGenerator.next());
+    }
+}
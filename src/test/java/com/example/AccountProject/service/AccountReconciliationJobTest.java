@@ -0,0 +1,99 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.domain.ReconciliationDiscrepancy;
+import com.example.AccountProject.domain.ReconciliationRun;
+import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.repository.ReconciliationDiscrepancyRepository;
+import com.example.AccountProject.repository.ReconciliationRunRepository;
+import com.example.AccountProject.type.DiscrepancyType;
+import com.example.AccountProject.type.ReconciliationStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//실제 H2 + embedded redis 위에서 대사 실행
+@SpringBootTest
+class AccountReconciliationJobTest {
+    //이 테스트에서만 사용하는 사용자
+    private static final long USER_ID = 5001L;
+
+    @Autowired
+    private AccountReconciliationJob accountReconciliationJob;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private ReconciliationRunRepository reconciliationRunRepository;
+
+    @Autowired
+    private ReconciliationDiscrepancyRepository reconciliationDiscrepancyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    @DisplayName("전체 계좌를 집계하고 계좌 수/잔액 불일치를 리포트에 남긴다")
+    void reportsDiscrepancies() {
+        // given: 사용 중 계좌 1개, 잔액이 남은 해지 계좌 1개인데 activeAccountCount는 3
+        jdbcTemplate.update("merge into account_user(id, name, active_account_count, created_at, updated_at) " +
+                "key(id) values (?, 'reconciliation', 0, now(), now())", USER_ID);
+        accountService.createAccount(USER_ID, 100L);
+        AccountDto unregistered = accountService.createAccount(USER_ID, 0L);
+        jdbcTemplate.update("update account set account_status = 'UNREGISTERED', balance = 500 " +
+                "where account_number = ?", unregistered.getAccountNumber());
+        jdbcTemplate.update("update account_user set active_account_count = 3 where id = ?", USER_ID);
+
+        // when: 어떤 동작을 하게 되면
+        ReconciliationRun run = accountReconciliationJob.run();
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ReconciliationStatus.COMPLETED, run.getStatus());
+        assertEquals(run.getMaxAccountId(), run.getLastProcessedId());
+        assertEquals(jdbcTemplate.queryForObject(
+                "select count(*) from account where id <= ?", Long.class, run.getMaxAccountId()),
+                run.getProcessedCount());
+
+        List<ReconciliationDiscrepancy> discrepancies =
+                reconciliationDiscrepancyRepository.findByRunIdOrderById(run.getId());
+        assertTrue(discrepancies.stream().anyMatch(discrepancy ->
+                discrepancy.getDiscrepancyType() == DiscrepancyType.ACTIVE_ACCOUNT_COUNT_MISMATCH
+                        && discrepancy.getAccountUserId() == USER_ID
+                        && discrepancy.getExpected() == 3L
+                        && discrepancy.getActual() == 1L));
+        assertTrue(discrepancies.stream().anyMatch(discrepancy ->
+                discrepancy.getDiscrepancyType() == DiscrepancyType.UNREGISTERED_WITH_BALANCE
+                        && discrepancy.getAccountUserId() == USER_ID
+                        && discrepancy.getActual() == 500L));
+    }
+
+    @Test
+    @DisplayName("중단된(RUNNING) 실행이 있으면 lastProcessedId 다음부터 이어서 처리한다")
+    void resumesRunningRun() {
+        // given: 마지막 계좌까지 처리했지만 리포트 전에 중단된 실행
+        long maxAccountId = jdbcTemplate.queryForObject("select coalesce(max(id), 0) from account", Long.class);
+        ReconciliationRun interrupted = reconciliationRunRepository.save(ReconciliationRun.builder()
+                .status(ReconciliationStatus.RUNNING)
+                .maxAccountId(maxAccountId)
+                .lastProcessedId(maxAccountId)
+                .processedCount(7L)
+                .startedAt(LocalDateTime.now())
+                .build());
+
+        // when: 어떤 동작을 하게 되면
+        ReconciliationRun run = accountReconciliationJob.run();
+
+        // then: 계좌는 다시 읽지 않고 마무리만
+        assertEquals(interrupted.getId(), run.getId());
+        assertEquals(ReconciliationStatus.COMPLETED, run.getStatus());
+        assertEquals(7L, run.getProcessedCount());
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.repository.AccountUserRepository;
+import com.example.AccountProject.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//실제 H2 + embedded redis 위에서 동시에 계좌 생성
+@SpringBootTest
+class AccountServiceConcurrencyTest {
+    //data.sql의 사용자 3(김철수)은 이 테스트에서만 사용
+    private static final long USER_ID = 3L;
+    private static final int THREADS = 50;
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private AccountRepository accountRepository;
+
+    @Autowired
+    private AccountUserRepository accountUserRepository;
+
+    @Test
+    @DisplayName("동시에 계좌를 생성해도 한 사용자의 계좌는 5개를 넘지 않는다")
+    void neverMoreThanFiveAccounts() throws InterruptedException {
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger maxAccountRejected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    accountService.createAccount(USER_ID, 0L);
+                    success.incrementAndGet();
+                } catch (AccountException e) {
+                    if (e.getErrorCode() == ErrorCode.MAX_ACCOUNT_PER_USER_5) {
+                        maxAccountRejected.incrementAndGet();
+                    }
+                } catch (Exception ignored) {
+                    //락 대기 시간 초과 등은 생성 실패로 취급
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        AccountUser accountUser = accountUserRepository.findById(USER_ID).get();
+        int storedAccounts = accountRepository.countByAccountUser(accountUser);
+
+        assertTrue(success.get() <= AccountService.MAX_ACCOUNT_PER_USER);
+        assertTrue(maxAccountRejected.get() >= THREADS - AccountService.MAX_ACCOUNT_PER_USER);
+        assertEquals(success.get(), storedAccounts);
+        //유지되는 카운터와 실제 계좌 수가 일치
+        assertEquals(storedAccounts, accountUser.getActiveAccountCount());
+    }
+}
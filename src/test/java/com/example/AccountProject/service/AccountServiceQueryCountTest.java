@@ -0,0 +1,202 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDetail;
+import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.dto.AccountLookup;
+import com.example.AccountProject.dto.AccountPage;
+import com.example.AccountProject.dto.CreateAccount;
+import com.example.AccountProject.dto.CreateAccountBatch;
+import com.example.AccountProject.type.AccountStatus;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//서비스 메소드별 실행되는 SQL 수(Hibernate statistics) : N+1, 불필요한 사용자 조회가 생기면 실패
+@SpringBootTest
+class AccountServiceQueryCountTest {
+    //이 테스트에서만 사용하는 사용자(계좌 1개씩)
+    private static final long[] USER_IDS = {4001L, 4002L, 4003L};
+
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Statistics statistics;
+    private RLock relayLock;
+    private long firstAccountId;
+
+    @BeforeEach
+    void setUp() {
+        //outbox 발행/삭제 스케줄러도 같은 SessionFactory를 쓰므로 측정하는 동안 멈춰둠(락을 대신 잡음)
+        relayLock = redissonClient.getLock(AccountEventRelay.RELAY_LOCK);
+        relayLock.lock(30, TimeUnit.SECONDS);
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        for (long userId : USER_IDS) {
+            jdbcTemplate.update("merge into account_user(id, name, active_account_count, created_at, updated_at) " +
+                    "key(id) values (?, 'query-count', 0, now(), now())", userId);
+            jdbcTemplate.update("delete from account_event where account_user_id = ?", userId);
+            jdbcTemplate.update("delete from account where account_user_id = ?", userId);
+        }
+        firstAccountId = Long.MAX_VALUE;
+        for (long userId : USER_IDS) {
+            AccountDto accountDto = accountService.createAccount(userId, 0L);
+            firstAccountId = Math.min(firstAccountId, jdbcTemplate.queryForObject(
+                    "select id from account where account_number = ?", Long.class, accountDto.getAccountNumber()));
+        }
+        //사용자는 2차 캐시에 없는 상태에서 시작
+        entityManagerFactory.getCache().evict(AccountUser.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        relayLock.unlock();
+    }
+
+    @Test
+    @DisplayName("계좌 생성 : 계좌 수 조건부 update, 계좌 insert, 이벤트 insert(사용자 조회 없음)")
+    void createAccount() {
+        long statements = countStatements(() -> accountService.createAccount(USER_IDS[0], 0L));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(2, statistics.getEntityInsertCount());
+        //계좌/이벤트 id는 pooled 시퀀스 -> 새 구간을 받는 시점이면 시퀀스 조회가 1번씩 추가
+        assertTrue(statements >= 3 && statements <= 5, "statements : " + statements);
+    }
+
+    @Test
+    @DisplayName("일괄 계좌 생성 : 사용자 in 조회 1번, 사용자별 update 1번, 계좌/이벤트는 batch insert")
+    void createAccounts() {
+        List<CreateAccount.Request> requests = Arrays.asList(
+                new CreateAccount.Request(USER_IDS[0], 0L),
+                new CreateAccount.Request(USER_IDS[0], 0L),
+                new CreateAccount.Request(USER_IDS[1], 0L),
+                new CreateAccount.Request(USER_IDS[2], 0L));
+
+        long statements = countStatements(() -> {
+            List<CreateAccountBatch.Result> results = accountService.createAccounts(requests);
+            assertEquals(requests.size(), results.size());
+        });
+
+        assertEquals(USER_IDS.length, statistics.getEntityLoadCount());
+        assertEquals(requests.size() * 2, statistics.getEntityInsertCount());
+        //사용자 조회 1 + 사용자별 update 3 + 계좌 batch 1 + 이벤트 batch 1 (+ 시퀀스 조회)
+        assertTrue(statements >= 6 && statements <= 8, "statements : " + statements);
+    }
+
+    @Test
+    @DisplayName("계좌확인 : projection 쿼리 1번, 두 번째부터는 캐시(쿼리 없음)")
+    void getAccountInfosByUserId() {
+        assertEquals(1, countStatements(() -> accountService.getAccountInfosByUserId(USER_IDS[0])));
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(0, countStatements(() -> accountService.getAccountInfosByUserId(USER_IDS[0])));
+    }
+
+    @Test
+    @DisplayName("여러 계좌 잔액 조회 : 계좌 수와 상관없이 in 쿼리 1번")
+    void lookupAccounts() {
+        List<String> accountNumbers = jdbcTemplate.queryForList(
+                "select account_number from account where account_user_id in (?, ?, ?)", String.class,
+                USER_IDS[0], USER_IDS[1], USER_IDS[2]);
+
+        long statements = countStatements(() -> {
+            List<AccountLookup.Response> responses = accountService.lookupAccounts(accountNumbers);
+            assertEquals(USER_IDS.length, responses.size());
+        });
+
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 목록 : 사용자 조회 1번 + 계좌 조회 1번, 두 번째부터 사용자는 2차 캐시")
+    void getAccountsByUserId() {
+        assertEquals(2, countStatements(() -> accountService.getAccountsByUserId(USER_IDS[0])));
+        assertEquals(1, countStatements(() -> accountService.getAccountsByUserId(USER_IDS[0])));
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 목록(keyset 페이지) : 계좌 조회 1번")
+    void getAccountPageByUserId() {
+        assertEquals(1, countStatements(() -> accountService.getAccountPageByUserId(USER_IDS[0], null, 20)));
+    }
+
+    @Test
+    @DisplayName("전체 계좌 목록 : 사용자가 여러 명이어도 계좌 조회 1번(사용자별 추가 조회 없음)")
+    void getAccountPageAcrossUsers() {
+        long statements = countStatements(() -> {
+            AccountPage.Response page = accountService.getAccountPage(null, firstAccountId - 1, USER_IDS.length);
+            assertEquals(USER_IDS.length, page.getAccounts().size());
+        });
+
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityFetchCount());
+        assertEquals(1, countStatements(() ->
+                accountService.getAccountPage(AccountStatus.IN_USE, firstAccountId - 1, USER_IDS.length)));
+    }
+
+    @Test
+    @DisplayName("전체 계좌 export : 계좌 수와 상관없이 커서 조회 1번")
+    void exportAccounts() {
+        assertEquals(1, countStatements(() -> accountService.exportAccounts(null, accountDto -> {
+        })));
+        assertEquals(0, statistics.getEntityFetchCount());
+    }
+
+    @Test
+    @DisplayName("계좌 조회 : projection 쿼리 1번(엔티티 없음)")
+    void getAccount() {
+        long statements = countStatements(() -> {
+            AccountDetail accountDetail = accountService.getAccount(firstAccountId);
+            assertEquals(USER_IDS[0], accountDetail.getUserId());
+        });
+
+        assertEquals(1, statements);
+        assertEquals(0, statistics.getEntityLoadCount());
+    }
+
+    @Test
+    @DisplayName("계좌 해지 : 조건부 update, 계좌 수 update, 이벤트 insert(엔티티 조회 없음)")
+    void deleteAccount() {
+        String accountNumber = jdbcTemplate.queryForObject(
+                "select account_number from account where id = ?", String.class, firstAccountId);
+
+        long statements = countStatements(() -> accountService.deleteAccount(USER_IDS[0], accountNumber));
+
+        assertEquals(0, statistics.getEntityLoadCount());
+        assertEquals(1, statistics.getEntityInsertCount());
+        //이벤트 id는 pooled 시퀀스(50개씩 할당) -> 새 구간을 받는 시점이면 시퀀스 조회 1번 추가
+        assertTrue(statements == 3 || statements == 4, "statements : " + statements);
+    }
+
+    private long countStatements(Runnable action) {
+        statistics.clear();
+        action.run();
+        return statistics.getPrepareStatementCount();
+    }
+}
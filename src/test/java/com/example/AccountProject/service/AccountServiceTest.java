@@ -1,29 +1,53 @@
 package com.example.AccountProject.service;
 
+import com.example.AccountProject.cache.AccountBalanceStore;
+import com.example.AccountProject.cache.UserAccountsCache;
 import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.domain.AccountEvent;
+import com.example.AccountProject.domain.AccountInfo;
 import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.dto.AccountDetail;
 import com.example.AccountProject.dto.AccountDto;
+import com.example.AccountProject.dto.AccountLookup;
+import com.example.AccountProject.dto.AccountPage;
+import com.example.AccountProject.dto.CreateAccount;
+import com.example.AccountProject.dto.CreateAccountBatch;
 import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.repository.AccountEventRepository;
 import com.example.AccountProject.repository.AccountRepository;
 import com.example.AccountProject.repository.AccountUserRepository;
+import com.example.AccountProject.type.AccountEventType;
 import com.example.AccountProject.type.AccountStatus;
 import com.example.AccountProject.type.ErrorCode;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
 
+import java.time.LocalDateTime;
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -35,10 +59,29 @@ class AccountServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
-    // 2개의 Mock이 달려있는 AccountService가 생성되어 Mockito로 진행.
+    @Mock
+    private AccountEventRepository accountEventRepository;
+
+    @Mock
+    private AccountNumberGenerator accountNumberGenerator;
+
+    @Mock
+    private UserAccountsCache userAccountsCache;
+
+    @Mock
+    private AccountBalanceStore accountBalanceStore;
+
+    // Mock들이 달려있는 AccountService가 생성되어 Mockito로 진행.
     @InjectMocks
     private AccountService accountService;
 
+    //제네릭 타입 인자는 @Captor로(ArgumentCaptor.forClass(List.class)는 unchecked 변환)
+    @Captor
+    private ArgumentCaptor<List<Account>> accountsCaptor;
+
+    @Captor
+    private ArgumentCaptor<Collection<String>> accountNumbersCaptor;
+
     //계좌 생성 API(AccountService) 성공 (파라미터 : 사용자 ID, 초기 잔액)
     @Test
     void createAccountSuccess() {
@@ -46,13 +89,14 @@ class AccountServiceTest {
         AccountUser user = AccountUser.builder()
                 .id(12L)
                 .name("강경구").build();
-        //사용자 조회
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        //계좌 수 선점 성공, 사용자 참조
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(1);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(user);
         //새로운 계좌 번호 생성
-        given(accountRepository.findFirstByOrderByIdDesc())
-                .willReturn(Optional.of(Account.builder()
-                        .accountNumber("1000000012").build()));
+        given(accountNumberGenerator.next())
+                .willReturn("1000000013");
         //신규 계좌 저장(AccountService 유저와 계좌번호 전부 저장)
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
@@ -70,6 +114,12 @@ class AccountServiceTest {
         verify(accountRepository, times(1)).save(captor.capture());
         assertEquals(12L, accountDto.getUserId()); // accountDto.getUserId()의 값이 12L과 일치하는지 검증
         assertEquals("1000000013", captor.getValue().getAccountNumber()); // accountDto.getAccountNumber()의 값이 "1000000013"과 일치하는지 검증
+        //계좌 생성 이벤트(outbox) 저장
+        ArgumentCaptor<AccountEvent> eventCaptor = ArgumentCaptor.forClass(AccountEvent.class);
+        verify(accountEventRepository, times(1)).save(eventCaptor.capture());
+        assertEquals(AccountEventType.CREATED, eventCaptor.getValue().getEventType());
+        assertEquals("1000000014", eventCaptor.getValue().getAccountNumber());
+        assertEquals(12L, eventCaptor.getValue().getAccountUserId());
     }
 
     //계좌 생성 API(AccountService) 실패
@@ -80,11 +130,14 @@ class AccountServiceTest {
         AccountUser user = AccountUser.builder()
                 .id(15L)
                 .name("강경구").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-        given(accountRepository.findFirstByOrderByIdDesc())
-                //데이터가 없으면
-                .willReturn(Optional.empty());
+        //계좌 수 선점 성공, 사용자 참조
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(1);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(user);
+        given(accountNumberGenerator.next())
+                //데이터가 없으면 최초 계좌번호 발급
+                .willReturn("1000000000");
         given(accountRepository.save(any()))
                 //임의의 값 리턴.
                 .willReturn(Account.builder()
@@ -108,9 +161,11 @@ class AccountServiceTest {
     @DisplayName("유저가 없는 경우")
     void createAccount_UserNotFound() {
         // given: 어떤 데이터가 있을 때
-        given(accountUserRepository.findById(anyLong()))
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(0);
+        given(accountUserRepository.existsById(anyLong()))
                 //유저가 없는 경우, 새로운 계좌 생성 및 저장 부분은 필요가 없어서 적을 필요 없음.
-                .willReturn(Optional.empty());
+                .willReturn(false);
 
         // 유저가 없는 경우 AccountException에서 별도로 처리했으므로 예외 처리.
         AccountException exception = assertThrows(AccountException.class,
@@ -124,13 +179,11 @@ class AccountServiceTest {
     @DisplayName("한 명 당 최대 계좌가 5개가 넘을 경우")
     void createAccount_maxAccountIs5() {
         //given 어떤 데이터가 있을 때,
-        AccountUser user = AccountUser.builder()
-                .id(15L)
-                .name("강경구").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-        given(accountRepository.countByAccountUser(any()))
-                .willReturn(5);
+        //이미 5개 -> 조건부 update 실패(변경된 row 0개)
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(0);
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
         // when: 어떤 동작을 하게 되면
         AccountException exception = assertThrows(AccountException.class,
                 () -> accountService.createAccount(1L, 1000L));
@@ -143,53 +196,54 @@ class AccountServiceTest {
     @Test
     void deleteAccountSuccess() {
         // given: 어떤 데이터가 있을 때
-        AccountUser user = AccountUser.builder()
-                .name("강경구").build();
-        user.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account.builder()
-                        .accountUser(user)
-                        .balance(0L)
-                        .accountNumber("1000000012").build()));
-
-        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
+        //조건부 update 1건 성공 -> 계좌/사용자 조회 없음
+        given(accountRepository.unregister(anyString(), anyLong(), any()))
+                .willReturn(1);
 
         // when: 어떤 동작을 하게 되면 (응답값)
-        AccountDto accountDto = accountService.deleteAccount(1L, "1234567890");
+        AccountDto accountDto = accountService.deleteAccount(12L, "1000000012");
 
         // then: 어떤 결과가 나와야 함
-        verify(accountRepository, times(1)).save(captor.capture());
+        verify(accountRepository, times(1)).unregister(eq("1000000012"), eq(12L), any());
+        verify(accountRepository, never()).findByAccountNumber(anyString());
+        verify(accountRepository, never()).save(any());
         assertEquals(12L, accountDto.getUserId());
-        assertEquals("1000000012", captor.getValue().getAccountNumber());
-        assertEquals(AccountStatus.UNREGISTERED, captor.getValue().getAccountStatus());
+        assertEquals("1000000012", accountDto.getAccountNumber());
+        assertEquals(AccountStatus.UNREGISTERED, accountDto.getAccountStatus());
+        verify(accountUserRepository, times(1)).decreaseActiveAccountCount(12L);
+        //계좌 해지 이벤트(outbox) 저장
+        ArgumentCaptor<AccountEvent> eventCaptor = ArgumentCaptor.forClass(AccountEvent.class);
+        verify(accountEventRepository, times(1)).save(eventCaptor.capture());
+        assertEquals(AccountEventType.UNREGISTERED, eventCaptor.getValue().getEventType());
+        assertEquals("1000000012", eventCaptor.getValue().getAccountNumber());
+        assertEquals(12L, eventCaptor.getValue().getAccountUserId());
     }
 
-    //계좌 해지 API 실패
+    //계좌 해지 API 실패 : 조건부 update가 0건이면 계좌를 조회해서 원인 응답
     @Test
     @DisplayName("사용자가 없는 경우")
     void deleteAccount_UserNotFound() {
         // given: 어떤 데이터가 있을 때
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        givenUnregisterFailed();
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
         // when: 어떤 동작을 하게 되면
         AccountException exception = assertThrows(AccountException.class,
                 () -> accountService.deleteAccount(1L, "1234567890"));
 
         // then: 어떤 결과가 나와야 함
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+        verify(accountUserRepository, never()).decreaseActiveAccountCount(anyLong());
+        verify(accountEventRepository, never()).save(any());
     }
 
     @Test
     @DisplayName("계좌가 없는 경우")
     void deleteAccount_AccountNotFound() {
         // given: 어떤 데이터가 있을 때
-        AccountUser user = AccountUser.builder()
-                .name("강경구").build();
-        user.setId(12L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user));
+        givenUnregisterFailed();
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
 
@@ -205,14 +259,12 @@ class AccountServiceTest {
     @DisplayName("사용자 아이디와 계좌 소유주가 다른 경우")
     void deleteAccountFailed_userUnMatch() {
         // given: 어떤 데이터가 있을 때
-        AccountUser user1 = AccountUser.builder()
-                .id(12L)
-                .name("강경구").build();
         AccountUser Pikachu = AccountUser.builder()
                 .id(13L)
                 .name("홍길동").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user1));
+        givenUnregisterFailed();
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(Pikachu)
@@ -220,7 +272,7 @@ class AccountServiceTest {
                         .accountNumber("1000000012").build()));
         // when: 어떤 동작을 하게 되면
         AccountException exception = assertThrows(AccountException.class,
-                () -> accountService.deleteAccount(1L, "1234567890"));
+                () -> accountService.deleteAccount(12L, "1234567890"));
 
         // then: 어떤 결과가 나와야 함
         assertEquals(ErrorCode.USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
@@ -233,8 +285,9 @@ class AccountServiceTest {
         AccountUser user1 = AccountUser.builder()
                 .id(12L)
                 .name("강경구").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user1));
+        givenUnregisterFailed();
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(user1)
@@ -243,7 +296,7 @@ class AccountServiceTest {
                         .accountNumber("1000000012").build()));
         // when: 어떤 동작을 하게 되면
         AccountException exception = assertThrows(AccountException.class,
-                () -> accountService.deleteAccount(1L, "1234567890"));
+                () -> accountService.deleteAccount(12L, "1234567890"));
 
         // then: 어떤 결과가 나와야 함
         assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
@@ -256,21 +309,90 @@ class AccountServiceTest {
         AccountUser user1 = AccountUser.builder()
                 .id(12L)
                 .name("강경구").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(user1));
+        givenUnregisterFailed();
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(user1)
+                        .accountStatus(AccountStatus.IN_USE)
                         .balance(100L)                 //잔액 100원 남음.
                         .accountNumber("1000000012").build()));
         // when: 어떤 동작을 하게 되면
         AccountException exception = assertThrows(AccountException.class,
-                () -> accountService.deleteAccount(1L, "1234567890"));
+                () -> accountService.deleteAccount(12L, "1234567890"));
 
         // then: 어떤 결과가 나와야 함
         assertEquals(ErrorCode.BALANCE_NOT_EMPTY, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("조회해보니 해지 가능한 상태 -> update 사이에 다른 요청이 계좌를 바꾼 경우")
+    void deleteAccountFailed_concurrentlyModified() {
+        // given: 어떤 데이터가 있을 때
+        AccountUser user1 = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        givenUnregisterFailed();
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user1)
+                        .accountStatus(AccountStatus.IN_USE)
+                        .balance(0L)
+                        .accountNumber("1000000012").build()));
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.deleteAccount(12L, "1234567890"));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+
+    //잔액 저장소 사용 시 : Redis(Lua)에서 해지, account 테이블 update 없음
+    @Test
+    void deleteAccountWithBalanceStore() {
+        // given: 어떤 데이터가 있을 때
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+
+        // when: 어떤 동작을 하게 되면
+        AccountDto accountDto = accountService.deleteAccount(12L, "1000000012");
+
+        // then: 어떤 결과가 나와야 함
+        verify(accountBalanceStore, times(1)).unregister(eq(12L), eq("1000000012"), any());
+        verify(accountRepository, never()).unregister(anyString(), anyLong(), any());
+        verify(accountUserRepository, times(1)).decreaseActiveAccountCount(12L);
+        verify(accountEventRepository, times(1)).save(any());
+        assertEquals(AccountStatus.UNREGISTERED, accountDto.getAccountStatus());
+    }
+
+    @Test
+    @DisplayName("잔액 저장소 사용 시 해지 실패 -> 사용자가 없으면 USER_NOT_FOUND")
+    void deleteAccountWithBalanceStore_UserNotFound() {
+        // given: 어떤 데이터가 있을 때
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+        given(accountBalanceStore.unregister(anyLong(), anyString(), any()))
+                .willThrow(new AccountException(ErrorCode.USER_ACCOUNT_UN_MATCH));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
+
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.deleteAccount(12L, "1000000012"));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+        verify(accountUserRepository, never()).decreaseActiveAccountCount(anyLong());
+        verify(accountEventRepository, never()).save(any());
+    }
+
+    private void givenUnregisterFailed() {
+        given(accountRepository.unregister(anyString(), anyLong(), any()))
+                .willReturn(0);
+    }
 
     //계좌확인 API 성공(파라미터 : ID)
     @Test
@@ -313,6 +435,49 @@ class AccountServiceTest {
         assertEquals(3000,accountDtos.get(2).getBalance());
     }
 
+    //계좌확인 API - 잔액 저장소 사용 시 잔액/상태는 저장소 값(DB 반영 전)
+    @Test
+    void getAccountsByUserIdWithBalanceStore() {
+        //given 어떤 데이터가 있을 때,
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+        AccountUser user1 = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user1));
+        given(accountRepository.findByAccountUser(any()))
+                .willReturn(Arrays.asList(
+                        Account.builder()
+                                .accountUser(user1)
+                                .accountNumber("1111111111")
+                                .accountStatus(AccountStatus.IN_USE)
+                                .balance(1000L)
+                                .build(),
+                        Account.builder()
+                                .accountUser(user1)
+                                .accountNumber("2222222222")
+                                .accountStatus(AccountStatus.IN_USE)
+                                .balance(0L)
+                                .build()));
+        LocalDateTime unRegisteredAt = LocalDateTime.now();
+        Map<String, AccountBalance> balances = new HashMap<>();
+        balances.put("1111111111", new AccountBalance(
+                1L, 12L, "1111111111", AccountStatus.IN_USE, 700L, 4L, null, null));
+        balances.put("2222222222", new AccountBalance(
+                2L, 12L, "2222222222", AccountStatus.UNREGISTERED, 0L, 2L, null, unRegisteredAt));
+        given(accountBalanceStore.getAll(anyCollection()))
+                .willReturn(balances);
+
+        //when 어떤 동작을 하게 되면
+        List<AccountDto> accountDtos = accountService.getAccountsByUserId(12L);
+
+        //then 어떤 결과가 나와야한다
+        assertEquals(700L, accountDtos.get(0).getBalance());
+        assertEquals(AccountStatus.UNREGISTERED, accountDtos.get(1).getAccountStatus());
+        assertEquals(unRegisteredAt, accountDtos.get(1).getUnRegisteredAt());
+    }
+
     //계좌확인 API 실패(파라미터 : ID)
     @Test
     @DisplayName("계좌확인 - 유저 정보가 없을 때,")
@@ -328,4 +493,324 @@ class AccountServiceTest {
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
     }
 
+    //계좌확인 API(AccountInfo projection) 성공 - 캐시 미스
+    @Test
+    void successGetAccountInfosByUserId() {
+        //given 어떤 데이터가 있을 때,
+        given(accountRepository.findInfoByAccountUserId(anyLong()))
+                .willReturn(Arrays.asList(
+                        new AccountInfo("1111111111", 1000L),
+                        new AccountInfo("2222222222", 2000L)));
+        givenCacheMiss();
+        //when 어떤 동작을 하게 되면
+        List<AccountInfo> accountInfos = accountService.getAccountInfosByUserId(1L);
+        //then 어떤 결과가 나와야한다
+        assertEquals(2, accountInfos.size());
+        assertEquals("1111111111", accountInfos.get(0).getAccountNumber());
+        assertEquals(2000, accountInfos.get(1).getBalance());
+        //계좌가 있으면 사용자 조회는 하지 않음
+        verify(accountUserRepository, times(0)).existsById(anyLong());
+    }
+
+    @Test
+    @DisplayName("계좌확인(AccountInfo) - 유저 정보가 없을 때,")
+    void failedToGetAccountInfos() {
+        //given 어떤 데이터가 있을 때,
+        given(accountRepository.findInfoByAccountUserId(anyLong()))
+                .willReturn(Collections.emptyList());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
+        givenCacheMiss();
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getAccountInfosByUserId(1L));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+    }
+
+    //계좌확인 API - 캐시에 있으면 DB 조회 없음
+    @Test
+    void getAccountInfosByUserIdFromCache() {
+        //given 어떤 데이터가 있을 때,
+        given(userAccountsCache.get(anyLong(), any()))
+                .willReturn(Arrays.asList(
+                        new AccountInfo("1111111111", 1000L)));
+        //when 어떤 동작을 하게 되면
+        List<AccountInfo> accountInfos = accountService.getAccountInfosByUserId(1L);
+        //then 어떤 결과가 나와야한다
+        assertEquals(1, accountInfos.size());
+        verify(accountRepository, times(0)).findInfoByAccountUserId(anyLong());
+    }
+
+    //계좌확인 API - 잔액 저장소 사용 시 계좌 목록은 캐시, 잔액은 저장소 값(캐시된 객체는 바꾸지 않음)
+    @Test
+    void getAccountInfosByUserIdWithBalanceStore() {
+        //given 어떤 데이터가 있을 때,
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+        AccountInfo cached = new AccountInfo("1111111111", 1000L);
+        given(userAccountsCache.get(anyLong(), any()))
+                .willReturn(Collections.singletonList(cached));
+        given(accountBalanceStore.getAll(anyCollection()))
+                .willReturn(Collections.singletonMap("1111111111", new AccountBalance(
+                        1L, 12L, "1111111111", AccountStatus.IN_USE, 700L, 4L, null, null)));
+
+        //when 어떤 동작을 하게 되면
+        List<AccountInfo> accountInfos = accountService.getAccountInfosByUserId(12L);
+
+        //then 어떤 결과가 나와야한다
+        assertEquals(700L, accountInfos.get(0).getBalance());
+        assertEquals(1000L, cached.getBalance());
+        verify(accountRepository, never()).findInfoByAccountUserId(anyLong());
+    }
+
+    //계좌 생성 시 해당 사용자의 계좌 목록 캐시 무효화
+    @Test
+    void createAccountEvictsCache() {
+        // given: 어떤 데이터가 있을 때
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        //계좌 수 선점 성공, 사용자 참조
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(1);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(user);
+        given(accountNumberGenerator.next())
+                .willReturn("1000000013");
+        given(accountRepository.save(any()))
+                .willReturn(Account.builder()
+                        .accountUser(user)
+                        .accountNumber("1000000013").build());
+
+        // when: 어떤 동작을 하게 되면
+        accountService.createAccount(12L, 1000L);
+
+        // then: 어떤 결과가 나와야 함
+        verify(userAccountsCache, times(1)).evictAfterCommit(12L);
+    }
+
+    //캐시에 없는 경우 loader(DB 조회)를 그대로 실행
+    private void givenCacheMiss() {
+        given(userAccountsCache.get(anyLong(), any()))
+                .willAnswer(invocation -> invocation.<Supplier<List<AccountInfo>>>getArgument(1).get());
+    }
+
+    //일괄 계좌 생성 - 항목별 결과(성공, 사용자 없음, 최대 5개 초과)
+    @Test
+    void createAccountsBatch() {
+        //given 어떤 데이터가 있을 때,
+        AccountUser user1 = AccountUser.builder()
+                .id(1L)
+                .name("강경구").build();
+        AccountUser user2 = AccountUser.builder()
+                .id(2L)
+                .activeAccountCount(4)
+                .name("홍길동").build();
+        given(accountUserRepository.findAllById(any()))
+                .willReturn(Arrays.asList(user1, user2));
+        given(accountUserRepository.increaseActiveAccountCount(anyLong(), anyInt(), anyInt()))
+                .willReturn(1);
+        given(accountNumberGenerator.next(anyInt()))
+                .willReturn(Arrays.asList("1000000000", "1000000001"));
+        List<CreateAccount.Request> requests = Arrays.asList(
+                new CreateAccount.Request(1L, 100L),
+                new CreateAccount.Request(2L, 200L),
+                new CreateAccount.Request(2L, 300L),   //사용자 2는 5개 초과
+                new CreateAccount.Request(3L, 400L));  //사용자 3은 없음
+
+        //when 어떤 동작을 하게 되면
+        List<CreateAccountBatch.Result> results = accountService.createAccounts(requests);
+
+        //then 어떤 결과가 나와야한다
+        verify(accountNumberGenerator, times(1)).next(2);
+        verify(accountUserRepository, times(1)).increaseActiveAccountCount(1L, 1, 5);
+        verify(accountUserRepository, times(1)).increaseActiveAccountCount(2L, 1, 5);
+        verify(accountRepository, times(1)).saveAll(accountsCaptor.capture());
+        assertEquals(2, accountsCaptor.getValue().size());
+        verify(accountEventRepository, times(1)).saveAll(any());
+        assertEquals(4, results.size());
+        assertEquals("1000000000", results.get(0).getAccountDto().getAccountNumber());
+        assertEquals("1000000001", results.get(1).getAccountDto().getAccountNumber());
+        assertEquals(ErrorCode.MAX_ACCOUNT_PER_USER_5, results.get(2).getErrorCode());
+        assertEquals(ErrorCode.USER_NOT_FOUND, results.get(3).getErrorCode());
+    }
+
+    //계좌 목록(keyset 페이지) - limit보다 1개 더 조회되면 다음 페이지 커서 응답
+    @Test
+    void getAccountPageByUserIdHasNext() {
+        //given 어떤 데이터가 있을 때,
+        AccountUser user1 = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        given(accountRepository.findPageByAccountUserId(anyLong(), anyLong(), any()))
+                .willReturn(Arrays.asList(
+                        Account.builder().id(11L).accountUser(user1).accountNumber("1111111111").build(),
+                        Account.builder().id(15L).accountUser(user1).accountNumber("2222222222").build(),
+                        Account.builder().id(17L).accountUser(user1).accountNumber("3333333333").build()));
+        //when 어떤 동작을 하게 되면
+        AccountPage.Response page = accountService.getAccountPageByUserId(12L, 10L, 2);
+        //then 어떤 결과가 나와야한다
+        verify(accountRepository, times(1))
+                .findPageByAccountUserId(12L, 10L, PageRequest.of(0, 3));
+        assertEquals(2, page.getAccounts().size());
+        assertEquals("2222222222", page.getAccounts().get(1).getAccountNumber());
+        assertEquals(15L, page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("계좌 목록 - 마지막 페이지면 nextCursor 없음")
+    void getAccountPageByUserIdLastPage() {
+        //given 어떤 데이터가 있을 때,
+        AccountUser user1 = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        given(accountRepository.findPageByAccountUserId(anyLong(), anyLong(), any()))
+                .willReturn(Collections.singletonList(
+                        Account.builder().id(11L).accountUser(user1).accountNumber("1111111111").build()));
+        //when 어떤 동작을 하게 되면
+        AccountPage.Response page = accountService.getAccountPageByUserId(12L, null, 2);
+        //then 어떤 결과가 나와야한다
+        verify(accountRepository, times(1))
+                .findPageByAccountUserId(12L, 0L, PageRequest.of(0, 3));
+        assertEquals(1, page.getAccounts().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    @DisplayName("계좌 목록 - 유저 정보가 없을 때,")
+    void failedToGetAccountPage() {
+        //given 어떤 데이터가 있을 때,
+        given(accountRepository.findPageByAccountUserId(anyLong(), anyLong(), any()))
+                .willReturn(Collections.emptyList());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getAccountPageByUserId(1L, null, 20));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+    }
+
+    //여러 계좌 잔액 조회 - 중복 제거 후 in 쿼리 1번, 요청 순서대로 응답(없는 계좌는 found = false)
+    @Test
+    void lookupAccounts() {
+        //given 어떤 데이터가 있을 때,
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+                .willReturn(Arrays.asList(
+                        new AccountInfo("1000000002", 2000L),
+                        new AccountInfo("1000000000", 1000L)));
+
+        // when: 어떤 동작을 하게 되면
+        List<AccountLookup.Response> responses = accountService.lookupAccounts(
+                Arrays.asList("1000000000", "9999999999", "1000000002", "1000000000"));
+
+        // then: 어떤 결과가 나와야 함
+        verify(accountRepository, times(1)).findByAccountNumberIn(accountNumbersCaptor.capture());
+        assertEquals(3, accountNumbersCaptor.getValue().size());
+        assertEquals(4, responses.size());
+        assertEquals("1000000000", responses.get(0).getAccountNumber());
+        assertEquals(1000L, responses.get(0).getBalance());
+        assertEquals("9999999999", responses.get(1).getAccountNumber());
+        assertFalse(responses.get(1).isFound());
+        assertNull(responses.get(1).getBalance());
+        assertEquals(2000L, responses.get(2).getBalance());
+        assertTrue(responses.get(3).isFound());
+    }
+
+    //여러 계좌 잔액 조회 - 잔액 저장소 사용 시 DB 조회 없이 저장소에서, 해지된 계좌는 found = false
+    @Test
+    void lookupAccountsWithBalanceStore() {
+        //given 어떤 데이터가 있을 때,
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+        Map<String, AccountBalance> balances = new HashMap<>();
+        balances.put("1000000000", new AccountBalance(
+                1L, 12L, "1000000000", AccountStatus.IN_USE, 1000L, 3L, null, null));
+        balances.put("1000000001", new AccountBalance(
+                2L, 12L, "1000000001", AccountStatus.UNREGISTERED, 0L, 5L, null, LocalDateTime.now()));
+        given(accountBalanceStore.getAll(anyCollection()))
+                .willReturn(balances);
+
+        // when: 어떤 동작을 하게 되면
+        List<AccountLookup.Response> responses = accountService.lookupAccounts(
+                Arrays.asList("1000000000", "1000000001", "9999999999"));
+
+        // then: 어떤 결과가 나와야 함
+        verify(accountRepository, never()).findByAccountNumberIn(anyCollection());
+        assertEquals(1000L, responses.get(0).getBalance());
+        assertFalse(responses.get(1).isFound());
+        assertFalse(responses.get(2).isFound());
+    }
+
+    //계좌 조회 - 잔액 저장소 사용 시 DB 조회 없이 저장소 값(DB 반영 전)으로 응답
+    @Test
+    void getAccountWithBalanceStore() {
+        //given 어떤 데이터가 있을 때,
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+        LocalDateTime registeredAt = LocalDateTime.now();
+        given(accountBalanceStore.getById(anyLong()))
+                .willReturn(Optional.of(new AccountBalance(
+                        1L, 12L, "1000000012", AccountStatus.IN_USE, 700L, 4L, registeredAt, null)));
+
+        // when: 어떤 동작을 하게 되면
+        AccountDetail accountDetail = accountService.getAccount(1L);
+
+        // then: 어떤 결과가 나와야 함
+        verify(accountRepository, never()).findDetailById(anyLong());
+        assertEquals(1L, accountDetail.getId());
+        assertEquals("1000000012", accountDetail.getAccountNumber());
+        assertEquals(700L, accountDetail.getBalance());
+        assertEquals(registeredAt, accountDetail.getRegisteredAt());
+        assertEquals(12L, accountDetail.getUserId());
+    }
+
+    @Test
+    @DisplayName("계좌 조회 - 잔액 저장소 사용 시 저장소/DB 모두 없을 때,")
+    void failedToGetAccountWithBalanceStore() {
+        //given 어떤 데이터가 있을 때,
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+        given(accountBalanceStore.getById(anyLong()))
+                .willReturn(Optional.empty());
+
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getAccount(1L));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    //계좌 조회 - 없는 계좌
+    @Test
+    @DisplayName("계좌 조회 - 계좌가 없을 때,")
+    void failedToGetAccount() {
+        //given 어떤 데이터가 있을 때,
+        given(accountRepository.findDetailById(anyLong()))
+                .willReturn(Optional.empty());
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getAccount(1L));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 조회 - id가 음수일 때,")
+    void failedToGetAccountInvalidId() {
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountService.getAccount(-1L));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.INVALID_REQUEST, exception.getErrorCode());
+        //업무 예외는 스택 트레이스를 만들지 않음
+        assertEquals(0, exception.getStackTrace().length);
+        verify(accountRepository, times(0)).findDetailById(anyLong());
+    }
 }
@@ -0,0 +1,106 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.type.ErrorCode;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+//embedded redis 위에서 한 계좌에 수백 개 스레드가 동시에 락을 시도
+@SpringBootTest
+class LockServiceTest {
+    private static final int THREADS = 300;
+
+    @Autowired
+    private LockService lockService;
+
+    @Test
+    @DisplayName("Redis 락 - 한 계좌에는 한 번에 한 요청만, 나머지는 ACCOUNT_TRANSACTION_LOCK")
+    void redisLockContention() throws InterruptedException {
+        runContention(lockService, "1000000000");
+    }
+
+    @Test
+    @DisplayName("로컬 스트라이프 락 - 한 계좌에는 한 번에 한 요청만")
+    void localLockContention() throws InterruptedException {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LockService localLockService = new LockService(null, meterRegistry);
+        ReflectionTestUtils.setField(localLockService, "mode", "local");
+        ReflectionTestUtils.setField(localLockService, "defaultWaitTimeMs", 200L);
+        ReflectionTestUtils.setField(localLockService, "defaultLeaseTimeMs", 10000L);
+        ReflectionTestUtils.setField(localLockService, "localStripes", 64);
+        localLockService.init();
+
+        runContention(localLockService, "1000000001");
+
+        //락 대기 시간은 성공/실패 모두 기록
+        assertEquals(THREADS, meterRegistry.find("account.lock.wait").timers()
+                .stream()
+                .mapToLong(Timer::count)
+                .sum());
+        assertTrue(meterRegistry.find("account.lock.wait")
+                .tag("outcome", "ACCOUNT_TRANSACTION_LOCK").timer().count() > 0);
+    }
+
+    private void runContention(LockService service, String accountNumber) throws InterruptedException {
+        AtomicInteger holders = new AtomicInteger();
+        AtomicInteger maxHolders = new AtomicInteger();
+        AtomicInteger success = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        AtomicInteger unexpected = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(THREADS);
+
+        for (int i = 0; i < THREADS; i++) {
+            executor.submit(() -> {
+                try {
+                    start.await();
+                    service.lock(accountNumber);
+                    try {
+                        int current = holders.incrementAndGet();
+                        maxHolders.accumulateAndGet(current, Math::max);
+                        Thread.sleep(5);
+                        holders.decrementAndGet();
+                        success.incrementAndGet();
+                    } finally {
+                        service.unlock(accountNumber);
+                    }
+                } catch (AccountException e) {
+                    if (e.getErrorCode() == ErrorCode.ACCOUNT_TRANSACTION_LOCK) {
+                        rejected.incrementAndGet();
+                    } else {
+                        unexpected.incrementAndGet();
+                    }
+                } catch (Exception e) {
+                    unexpected.incrementAndGet();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        start.countDown();
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        executor.shutdown();
+
+        assertEquals(1, maxHolders.get());          //동시에 락을 가진 요청은 최대 1개
+        assertEquals(0, unexpected.get());
+        assertEquals(THREADS, success.get() + rejected.get());
+        assertTrue(success.get() > 0);
+        assertTrue(rejected.get() > 0);             //대기 시간(200ms)을 넘긴 요청은 바로 실패
+    }
+}
@@ -0,0 +1,119 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.config.RateLimitProperties;
+import com.example.AccountProject.exception.RateLimitException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisConnectionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+//embedded redis 위에서 RRateLimiter 한도(여러 노드 공유)와 Redis 장애 시 로컬 처리 확인
+@SpringBootTest
+class RateLimitServiceRedisTest {
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    //Redis 키가 테스트 실행마다 겹치지 않게 endpoint 이름을 새로 만듦
+    private final String endpoint = "redis-test-" + UUID.randomUUID();
+
+    @Test
+    @DisplayName("사용자별 한도는 Redis에서 노드끼리 공유, 다른 사용자는 영향 없음")
+    void perUserLimitSharedByNodes() {
+        // given: 사용자별 1분에 2번, 같은 Redis를 쓰는 노드 2개
+        RateLimitService node1 = newService(redissonClient, limit(2, 60_000), null, 5_000);
+        RateLimitService node2 = newService(redissonClient, limit(2, 60_000), null, 5_000);
+
+        // when: 어떤 동작을 하게 되면
+        node1.acquire(endpoint, 1L);
+        node2.acquire(endpoint, 1L);
+
+        // then: 어떤 결과가 나와야 함
+        assertThrows(RateLimitException.class, () -> node1.acquire(endpoint, 1L));
+        assertDoesNotThrow(() -> node2.acquire(endpoint, 2L));
+        assertEquals(0, meterRegistry.counter("account.rate_limit.redis.errors").count());
+    }
+
+    @Test
+    @DisplayName("전체 한도는 사용자, 노드와 상관없이 Redis에서 공유")
+    void globalLimitSharedByNodes() {
+        // given: 전체 1분에 3번
+        RateLimitService node1 = newService(redissonClient, null, limit(3, 60_000), 5_000);
+        RateLimitService node2 = newService(redissonClient, null, limit(3, 60_000), 5_000);
+
+        // when: 어떤 동작을 하게 되면
+        node1.acquire(endpoint, 1L);
+        node2.acquire(endpoint, 2L);
+        node1.acquire(endpoint, 3L);
+
+        // then: 어떤 결과가 나와야 함
+        RateLimitException exception = assertThrows(RateLimitException.class,
+                () -> node2.acquire(endpoint, 4L));
+        //토큰 1개가 채워지는 시간(20초)으로 안내
+        assertEquals(20_000, exception.getRetryAfterMs());
+    }
+
+    @Test
+    @DisplayName("Redis 오류 후 redisBackoffMs 동안은 로컬 토큰 버킷, 지나면 다시 Redis")
+    void fallbackToLocalDuringBackoff() throws InterruptedException {
+        // given: Redis 호출이 실패하는 상황, backoff 300ms
+        AtomicBoolean redisDown = new AtomicBoolean(true);
+        RedissonClient client = mock(RedissonClient.class);
+        doAnswer(invocation -> {
+            if (redisDown.get()) {
+                throw new RedisConnectionException("redis is down");
+            }
+            return redissonClient.getRateLimiter(invocation.getArgument(0));
+        }).when(client).getRateLimiter(anyString());
+        RateLimitService rateLimitService = newService(client, limit(2, 60_000), null, 300);
+
+        // when: 어떤 동작을 하게 되면
+        rateLimitService.acquire(endpoint, 1L);
+        //Redis가 복구되어도 backoff 동안은 로컬 버킷(1분에 2번)으로 확인
+        redisDown.set(false);
+        rateLimitService.acquire(endpoint, 1L);
+        verify(client, times(1)).getRateLimiter(anyString());
+
+        Thread.sleep(400);
+        rateLimitService.acquire(endpoint, 1L);
+
+        // then: 어떤 결과가 나와야 함
+        //backoff가 지나서 다시 Redis로 확인(Redis 버킷은 아직 쓰지 않았으므로 통과)
+        verify(client, times(2)).getRateLimiter(anyString());
+        assertEquals(1, meterRegistry.counter("account.rate_limit.redis.errors").count());
+    }
+
+    private RateLimitService newService(RedissonClient client, RateLimitProperties.Limit perUser,
+                                        RateLimitProperties.Limit global, long redisBackoffMs) {
+        RateLimitProperties.Endpoint config = new RateLimitProperties.Endpoint();
+        config.setPerUser(perUser);
+        config.setGlobal(global);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMode("redis");
+        properties.setRedisBackoffMs(redisBackoffMs);
+        properties.getEndpoints().put(endpoint, config);
+
+        RateLimitService rateLimitService = new RateLimitService(client, properties, meterRegistry);
+        rateLimitService.init();
+        return rateLimitService;
+    }
+
+    private static RateLimitProperties.Limit limit(long permits, long periodMs) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPermits(permits);
+        limit.setPeriodMs(periodMs);
+        return limit;
+    }
+}
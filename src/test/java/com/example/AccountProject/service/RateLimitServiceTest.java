@@ -0,0 +1,120 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.config.RateLimitProperties;
+import com.example.AccountProject.exception.RateLimitException;
+import com.example.AccountProject.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class RateLimitServiceTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    @DisplayName("사용자별 한도를 넘으면 TOO_MANY_REQUESTS, 다른 사용자는 영향 없음")
+    void perUserLimit() {
+        // given: 사용자별 1분에 2번
+        RateLimitService rateLimitService = newService("local", limit(2, 60_000), null);
+
+        // when: 어떤 동작을 하게 되면
+        rateLimitService.acquire("create-account", 1L);
+        rateLimitService.acquire("create-account", 1L);
+        RateLimitException exception = assertThrows(RateLimitException.class,
+                () -> rateLimitService.acquire("create-account", 1L));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.TOO_MANY_REQUESTS, exception.getErrorCode());
+        //토큰 1개가 채워지는 시간(30초) 이내
+        assertTrue(exception.getRetryAfterMs() > 0 && exception.getRetryAfterMs() <= 30_000);
+        assertDoesNotThrow(() -> rateLimitService.acquire("create-account", 2L));
+        assertEquals(1, meterRegistry.find("account.rate_limit.rejected")
+                .tag("scope", "user").counter().count());
+    }
+
+    @Test
+    @DisplayName("전체 한도는 사용자와 상관없이 공유")
+    void globalLimit() {
+        // given: 전체 1분에 2번
+        RateLimitService rateLimitService = newService("local", null, limit(2, 60_000));
+
+        // when: 어떤 동작을 하게 되면
+        rateLimitService.acquire("create-account", 1L);
+        rateLimitService.acquire("create-account", 2L);
+
+        // then: 어떤 결과가 나와야 함
+        assertThrows(RateLimitException.class, () -> rateLimitService.acquire("create-account", 3L));
+        //설정이 없는 endpoint는 제한 없음
+        assertDoesNotThrow(() -> rateLimitService.acquire("get-account", null));
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시 로컬 토큰 버킷으로 한도 확인")
+    void fallbackToLocalBucket() {
+        // given: 어떤 데이터가 있을 때
+        given(redissonClient.getRateLimiter(anyString()))
+                .willThrow(new RedisException("redis is down"));
+        RateLimitService rateLimitService = newService("redis", limit(1, 60_000), null);
+
+        // when: 어떤 동작을 하게 되면
+        rateLimitService.acquire("create-account", 1L);
+
+        // then: 어떤 결과가 나와야 함
+        assertThrows(RateLimitException.class, () -> rateLimitService.acquire("create-account", 1L));
+        //오류 후 backoff 동안은 Redis를 다시 시도하지 않음
+        assertEquals(1, meterRegistry.counter("account.rate_limit.redis.errors").count());
+    }
+
+    @Test
+    @DisplayName("backoff가 지나면 다시 Redis로 시도")
+    void retryRedisAfterBackoff() {
+        // given: 어떤 데이터가 있을 때
+        given(redissonClient.getRateLimiter(anyString()))
+                .willThrow(new RedisException("redis is down"));
+        RateLimitService rateLimitService = newService("redis", limit(10, 60_000), null);
+
+        // when: 어떤 동작을 하게 되면
+        rateLimitService.acquire("create-account", 1L);
+        //backoff 시간이 지난 상황
+        ReflectionTestUtils.setField(rateLimitService, "redisRetryAt", 0L);
+        rateLimitService.acquire("create-account", 1L);
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(2, meterRegistry.counter("account.rate_limit.redis.errors").count());
+    }
+
+    private RateLimitService newService(String mode, RateLimitProperties.Limit perUser,
+                                        RateLimitProperties.Limit global) {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setPerUser(perUser);
+        endpoint.setGlobal(global);
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setMode(mode);
+        properties.getEndpoints().put("create-account", endpoint);
+
+        RateLimitService rateLimitService = new RateLimitService(redissonClient, properties, meterRegistry);
+        rateLimitService.init();
+        return rateLimitService;
+    }
+
+    private static RateLimitProperties.Limit limit(long permits, long periodMs) {
+        RateLimitProperties.Limit limit = new RateLimitProperties.Limit();
+        limit.setPermits(permits);
+        limit.setPeriodMs(periodMs);
+        return limit;
+    }
+}
@@ -0,0 +1,172 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.type.ErrorCode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightGroupTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    //leader가 막혀 있어도 다른 요청이 실행되도록 전용 스레드 풀 사용
+    private final ExecutorService executor = Executors.newFixedThreadPool(10);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @DisplayName("같은 키로 동시에 들어온 요청은 조회 1번 결과를 같이 받는다")
+    void coalescesConcurrentCalls() throws Exception {
+        // given: leader의 조회가 끝나지 않은 상태에서 같은 키로 9개 더 요청
+        SingleFlightGroup singleFlightGroup = newGroup(100, 5_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when: 어떤 동작을 하게 되면
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        results.add(CompletableFuture.supplyAsync(() -> singleFlightGroup.execute("user:1", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            await(release);
+            return "accounts";
+        }), executor));
+        loading.await(5, TimeUnit.SECONDS);
+        for (int i = 0; i < 9; i++) {
+            results.add(CompletableFuture.supplyAsync(() -> singleFlightGroup.execute("user:1", () -> {
+                loads.incrementAndGet();
+                return "other";
+            }), executor));
+        }
+        //9개 모두 leader를 기다리는 중
+        while (meterRegistry.counter("account.single_flight.coalesced").count() < 9) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        // then: 어떤 결과가 나와야 함
+        for (CompletableFuture<String> result : results) {
+            assertEquals("accounts", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(0, singleFlightGroup.getInFlightSize());
+    }
+
+    @Test
+    @DisplayName("leader의 예외는 기다리던 요청에도 그대로 전달되고, 끝난 키는 다시 조회한다")
+    void sharesException() throws Exception {
+        // given: 어떤 데이터가 있을 때
+        SingleFlightGroup singleFlightGroup = newGroup(100, 5_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        // when: 어떤 동작을 하게 되면
+        CompletableFuture<Object> leader = CompletableFuture.supplyAsync(() -> singleFlightGroup.execute("user:2", () -> {
+            loading.countDown();
+            await(release);
+            throw new AccountException(ErrorCode.USER_NOT_FOUND);
+        }), executor);
+        loading.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Object> follower = CompletableFuture.supplyAsync(
+                () -> singleFlightGroup.execute("user:2", () -> "other"), executor);
+        while (meterRegistry.counter("account.single_flight.coalesced").count() < 1) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.USER_NOT_FOUND, errorCodeOf(leader));
+        assertEquals(ErrorCode.USER_NOT_FOUND, errorCodeOf(follower));
+        assertEquals("again", singleFlightGroup.execute("user:2", () -> "again"));
+    }
+
+    @Test
+    @DisplayName("leader가 timeout 안에 끝나지 않으면 기다리던 요청은 ACCOUNT_API_BUSY")
+    void timesOut() throws Exception {
+        // given: 어떤 데이터가 있을 때
+        SingleFlightGroup singleFlightGroup = newGroup(100, 50);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlightGroup.execute("user:3", () -> {
+            loading.countDown();
+            await(release);
+            return "accounts";
+        }), executor);
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when: 어떤 동작을 하게 되면
+        AccountException exception = assertThrows(AccountException.class,
+                () -> singleFlightGroup.execute("user:3", () -> "other"));
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals(ErrorCode.ACCOUNT_API_BUSY, exception.getErrorCode());
+        release.countDown();
+        assertEquals("accounts", leader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, meterRegistry.counter("account.single_flight.timeouts").count());
+    }
+
+    @Test
+    @DisplayName("진행 중인 키가 max-keys 이상이면 합치지 않고 바로 조회")
+    void bypassesWhenFull() throws Exception {
+        // given: 진행 중인 키 1개, 최대 1개
+        SingleFlightGroup singleFlightGroup = newGroup(1, 5_000);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> leader = CompletableFuture.supplyAsync(() -> singleFlightGroup.execute("user:4", () -> {
+            loading.countDown();
+            await(release);
+            return "accounts";
+        }), executor);
+        loading.await(5, TimeUnit.SECONDS);
+
+        // when: 어떤 동작을 하게 되면
+        String result = singleFlightGroup.execute("user:5", () -> "direct");
+
+        // then: 어떤 결과가 나와야 함
+        assertEquals("direct", result);
+        assertEquals(1, meterRegistry.counter("account.single_flight.bypassed").count());
+        release.countDown();
+        assertEquals("accounts", leader.get(5, TimeUnit.SECONDS));
+    }
+
+    private SingleFlightGroup newGroup(int maxKeys, long timeoutMs) {
+        SingleFlightGroup singleFlightGroup = new SingleFlightGroup(meterRegistry);
+        ReflectionTestUtils.setField(singleFlightGroup, "maxKeys", maxKeys);
+        ReflectionTestUtils.setField(singleFlightGroup, "timeoutMs", timeoutMs);
+        singleFlightGroup.init();
+        return singleFlightGroup;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static ErrorCode errorCodeOf(CompletableFuture<Object> future) {
+        try {
+            future.get(5, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            return ((AccountException) e.getCause()).getErrorCode();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,407 @@
+package com.example.AccountProject.service;
+
+import com.example.AccountProject.cache.AccountBalanceStore;
+import com.example.AccountProject.cache.UserAccountsCache;
+import com.example.AccountProject.domain.Account;
+import com.example.AccountProject.domain.AccountBalance;
+import com.example.AccountProject.domain.AccountUser;
+import com.example.AccountProject.domain.Transaction;
+import com.example.AccountProject.dto.TransactionDto;
+import com.example.AccountProject.exception.AccountException;
+import com.example.AccountProject.repository.AccountRepository;
+import com.example.AccountProject.repository.AccountUserRepository;
+import com.example.AccountProject.repository.TransactionRepository;
+import com.example.AccountProject.type.AccountStatus;
+import com.example.AccountProject.type.ErrorCode;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static com.example.AccountProject.type.TransactionResultType.F;
+import static com.example.AccountProject.type.TransactionResultType.S;
+import static com.example.AccountProject.type.TransactionType.CANCEL;
+import static com.example.AccountProject.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionServiceTest {
+    public static final long USE_AMOUNT = 200L;
+    public static final long CANCEL_AMOUNT = 200L;
+
+    @Mock
+    private TransactionRepository transactionRepository;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    @Mock
+    private AccountUserRepository accountUserRepository;
+
+    @Mock
+    private UserAccountsCache userAccountsCache;
+
+    @Mock
+    private AccountBalanceStore accountBalanceStore;
+
+    @InjectMocks
+    private TransactionService transactionService;
+
+    //잔액 사용 성공
+    @Test
+    void successUseBalance() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.useBalance(anyLong(), anyLong()))
+                .willReturn(1);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(1L, "1000000000", USE_AMOUNT);
+
+        //then
+        verify(accountRepository, times(1)).useBalance(1L, USE_AMOUNT);
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(USE_AMOUNT, captor.getValue().getAmount());
+        assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+        assertEquals(S, transactionDto.getTransactionResultType());
+        assertEquals(USE, transactionDto.getTransactionType());
+    }
+
+    //잔액 사용 성공 - 잔액 저장소 사용 시 차감은 Redis(Lua), 원장 잔액은 차감 후 저장소 잔액
+    @Test
+    void successUseBalanceWithBalanceStore() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(user)
+                .accountNumber("1000000012").build();
+        given(accountBalanceStore.isEnabled())
+                .willReturn(true);
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountBalanceStore.use(anyLong(), anyString(), anyLong()))
+                .willReturn(new AccountBalance(1L, 12L, "1000000012", AccountStatus.IN_USE, 9800L, 4L, null, null));
+        given(accountRepository.getReferenceById(anyLong()))
+                .willReturn(account);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        //when
+        TransactionDto transactionDto = transactionService.useBalance(12L, "1000000012", USE_AMOUNT);
+
+        //then
+        verify(accountBalanceStore, times(1)).use(12L, "1000000012", USE_AMOUNT);
+        verify(accountRepository, never()).useBalance(anyLong(), anyLong());
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(9800L, captor.getValue().getBalanceSnapshot());
+        assertEquals("1000000012", transactionDto.getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("거래 금액이 잔액보다 큰 경우")
+    void useBalance_exceedAmount() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        Account account = Account.builder()
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(100L)
+                .accountNumber("1000000012").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1234567890", 1000L));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("검증 이후 다른 요청이 잔액을 먼저 사용한 경우(조건부 update 실패)")
+    void useBalance_conditionalUpdateFailed() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(user)
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(1000L)
+                .accountNumber("1000000012").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.useBalance(anyLong(), anyLong()))
+                .willReturn(0);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1234567890", USE_AMOUNT));
+
+        //then
+        assertEquals(ErrorCode.AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("해지된 계좌는 사용할 수 없다")
+    void useBalance_alreadyUnregistered() {
+        //given
+        AccountUser user = AccountUser.builder()
+                .id(12L)
+                .name("강경구").build();
+        given(accountUserRepository.findById(anyLong()))
+                .willReturn(Optional.of(user));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(user)
+                        .accountStatus(AccountStatus.UNREGISTERED)
+                        .balance(1000L)
+                        .accountNumber("1000000012").build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(1L, "1234567890", USE_AMOUNT));
+
+        //then
+        assertEquals(ErrorCode.ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("실패 트랜잭션 저장 성공")
+    void saveFailedUseTransaction() {
+        //given
+        Account account = Account.builder()
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        //when
+        transactionService.saveFailedUseTransaction("1000000000", USE_AMOUNT);
+
+        //then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(USE_AMOUNT, captor.getValue().getAmount());
+        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
+        assertEquals(F, captor.getValue().getTransactionResultType());
+    }
+
+    //잔액 사용 취소 성공
+    @Test
+    void successCancelBalance() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .accountUser(AccountUser.builder()
+                        .id(12L)
+                        .name("강경구").build())
+                .accountStatus(AccountStatus.IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT)
+                .balanceSnapshot(9800L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountRepository.cancelBalance(anyLong(), anyLong()))
+                .willReturn(1);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor = ArgumentCaptor.forClass(Transaction.class);
+
+        //when
+        TransactionDto transactionDto = transactionService.cancelBalance(
+                "transactionId", "1000000000", CANCEL_AMOUNT);
+
+        //then
+        verify(transactionRepository, times(1)).save(captor.capture());
+        assertEquals(CANCEL_AMOUNT, captor.getValue().getAmount());
+        assertEquals(10000L + CANCEL_AMOUNT, captor.getValue().getBalanceSnapshot());
+        assertEquals("transactionId", captor.getValue().getCanceledTransactionId());
+        assertEquals(CANCEL, transactionDto.getTransactionType());
+        assertEquals(S, transactionDto.getTransactionResultType());
+    }
+
+    @Test
+    @DisplayName("거래와 계좌가 매칭 실패 - 잔액 사용 취소 실패")
+    void cancelTransaction_TransactionAccountUnMatch() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000012").build();
+        Account accountNotUse = Account.builder()
+                .id(2L)
+                .accountNumber("1000000013").build();
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(accountNotUse));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000000", CANCEL_AMOUNT));
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_ACCOUNT_UN_MATCH, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("거래금액과 취소금액이 다름 - 잔액 사용 취소 실패")
+    void cancelTransaction_CancelMustFully() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000012").build();
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT + 1000L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000000", CANCEL_AMOUNT));
+
+        //then
+        assertEquals(ErrorCode.CANCEL_MUST_FULLY, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("이미 취소된 거래 - 잔액 사용 취소 실패")
+    void cancelTransaction_AlreadyCanceled() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000012").build();
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(transactionRepository.existsByCanceledTransactionIdAndTransactionResultType(anyString(), any()))
+                .willReturn(true);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance("transactionId", "1000000000", CANCEL_AMOUNT));
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_ALREADY_CANCELED, exception.getErrorCode());
+    }
+
+    //거래 확인 성공
+    @Test
+    void successQueryTransaction() {
+        //given
+        Account account = Account.builder()
+                .id(1L)
+                .accountNumber("1000000012").build();
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(S)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(CANCEL_AMOUNT)
+                .balanceSnapshot(9800L)
+                .build();
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+
+        //when
+        TransactionDto transactionDto = transactionService.queryTransaction("trxId");
+
+        //then
+        assertEquals(USE, transactionDto.getTransactionType());
+        assertEquals(S, transactionDto.getTransactionResultType());
+        assertEquals(CANCEL_AMOUNT, transactionDto.getAmount());
+        assertEquals("transactionId", transactionDto.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("원 거래 없음 - 거래 조회 실패")
+    void queryTransaction_TransactionNotFound() {
+        //given
+        given(transactionRepository.findByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.queryTransaction("transactionId"));
+
+        //then
+        assertEquals(ErrorCode.TRANSACTION_NOT_FOUND, exception.getErrorCode());
+    }
+}